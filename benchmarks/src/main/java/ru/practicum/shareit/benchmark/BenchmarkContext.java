@@ -0,0 +1,46 @@
+package ru.practicum.shareit.benchmark;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItServerApp;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Поднимает контекст сервера без веб-слоя поверх встроенной H2, чтобы замеры
+ * не зависели от внешней базы и воспроизводились офлайн.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return start(Map.of());
+    }
+
+    /**
+     * overrides заменяют одноимённые настройки по умолчанию и из application.properties.
+     */
+    static ConfigurableApplicationContext start(Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("spring.datasource.driverClassName", "org.h2.Driver");
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        properties.put("spring.datasource.username", "bench");
+        properties.put("spring.datasource.password", "bench");
+        properties.put("spring.jpa.properties.hibernate.show_sql", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.springframework.transaction.interceptor", "WARN");
+        properties.put("logging.level.org.springframework.orm.jpa.JpaTransactionManager", "WARN");
+        properties.putAll(overrides);
+        return new SpringApplicationBuilder(ShareItServerApp.class)
+                .web(WebApplicationType.NONE)
+                .run(properties.entrySet().stream()
+                        .map(property -> "--" + property.getKey() + "=" + property.getValue())
+                        .toArray(String[]::new));
+    }
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка пересечений из BookingServiceImpl.findTimeIntersections на вещи с длинной историей бронирований.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BookingAdmissionBenchmark {
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 12, 0);
+    @Param({"100", "10000"})
+    private int history;
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private long itemId;
+    private LocalDateTime freeStart;
+    private LocalDateTime busyStart;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        bookingRepository = context.getBean(BookingRepository.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+
+        User owner = userRepository.save(User.builder().name("owner").email("owner@bench.test").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@bench.test").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("дрель с долгой историей")
+                .available(true)
+                .owner(owner)
+                .build());
+        itemId = item.getId();
+
+        List<Booking> bookings = new ArrayList<>(history);
+        for (int i = 0; i < history; i++) {
+            LocalDateTime start = BASE.plusHours(3L * i);
+            bookings.add(Booking.builder()
+                    .item(item)
+                    .user(booker)
+                    .start(start)
+                    .end(start.plusHours(2))
+                    .state(i % 10 == 0 ? State.REJECTED : State.APPROVED)
+                    .itemOwnerId(owner.getId())
+                    .build());
+        }
+        bookingRepository.saveAll(bookings);
+        busyStart = BASE.plusHours(3L * (history / 2) + 1);
+        freeStart = BASE.plusHours(3L * history);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean freeSlot() {
+        return bookingRepository.existsByItemIdAndStateNotAndStartBeforeAndEndAfter(itemId, State.REJECTED,
+                freeStart.plusHours(2), freeStart);
+    }
+
+    @Benchmark
+    public boolean overlappingSlot() {
+        return bookingRepository.existsByItemIdAndStateNotAndStartBeforeAndEndAfter(itemId, State.REJECTED,
+                busyStart.plusHours(2), busyStart);
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.benchmark;
+
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Вставка бронирований через BookingRepository.saveAll одной транзакцией; результат в строках в секунду.
+ * batchSize задаёт hibernate.jdbc.batch_size, при 1 каждая строка уходит на сервер отдельным запросом.
+ * H2 поднимается TCP-сервером на loopback, чтобы каждый запрос был настоящим сетевым обменом, как с PostgreSQL.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@OperationsPerInvocation(BookingInsertBenchmark.ROWS)
+public class BookingInsertBenchmark {
+    static final int ROWS = 500;
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 12, 0);
+    @Param({"1", "50"})
+    private int batchSize;
+    private Server database;
+    private ConfigurableApplicationContext context;
+    private BookingRepository bookingRepository;
+    private TransactionTemplate transactionTemplate;
+    private Item item;
+    private User booker;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        context = BenchmarkContext.start(Map.of(
+                "spring.datasource.url", "jdbc:h2:tcp://localhost:" + database.getPort() + "/mem:bench-insert",
+                "spring.jpa.properties.hibernate.jdbc.batch_size", String.valueOf(batchSize)));
+        bookingRepository = context.getBean(BookingRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+
+        User owner = userRepository.save(User.builder().name("owner").email("owner@bench.test").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@bench.test").build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("дрель для пакетной вставки")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        database.stop();
+    }
+
+    @Benchmark
+    public List<Booking> saveAll() {
+        List<Booking> bookings = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            LocalDateTime start = BASE.plusHours(3L * i);
+            bookings.add(Booking.builder()
+                    .item(item)
+                    .user(booker)
+                    .start(start)
+                    .end(start.plusHours(2))
+                    .state(State.WAITING)
+                    .itemOwnerId(item.getOwner().getId())
+                    .build());
+        }
+        return transactionTemplate.execute(status -> bookingRepository.saveAll(bookings));
+    }
+}
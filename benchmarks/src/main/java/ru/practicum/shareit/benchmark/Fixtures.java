@@ -0,0 +1,45 @@
+package ru.practicum.shareit.benchmark;
+
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+final class Fixtures {
+    private static final LocalDateTime BASE = LocalDateTime.of(2023, 1, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static List<Booking> bookings(int count, int items) {
+        User owner = User.builder().id(1L).name("owner").email("owner@example.com").build();
+        List<Item> itemList = new ArrayList<>();
+        for (long i = 1; i <= items; i++) {
+            itemList.add(Item.builder()
+                    .id(i)
+                    .name("вещь " + i)
+                    .description("описание вещи " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+        }
+        List<Booking> bookings = new ArrayList<>();
+        for (long i = 1; i <= count; i++) {
+            User booker = User.builder().id(i + 1).name("booker " + i).email("booker" + i + "@example.com").build();
+            bookings.add(Booking.builder()
+                    .id(i)
+                    .item(itemList.get((int) (i % items)))
+                    .user(booker)
+                    .start(BASE.plusHours(i))
+                    .end(BASE.plusHours(i + 2))
+                    .state(State.APPROVED)
+                    .itemOwnerId(owner.getId())
+                    .build());
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import ru.practicum.shareit.mapper.MapperUtil;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пересылка ответа /bookings/owner через шлюз теми же конвертерами, что у RestTemplate и Spring MVC:
+ * разбор в дерево Object и повторная сериализация против копирования байтов.
+ * Выделение памяти на операцию видно с -Djmh.args="-f 1 -prof gc GatewayRelayBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class GatewayRelayBenchmark {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final MappingJackson2HttpMessageConverter jsonConverter =
+            new MappingJackson2HttpMessageConverter(objectMapper);
+    private final ByteArrayHttpMessageConverter byteConverter = new ByteArrayHttpMessageConverter();
+    private final Downstream downstream = new Downstream();
+    @Param({"20", "1000"})
+    private int rows;
+    private byte[] upstreamBody;
+
+    @Setup
+    public void setUp() throws IOException {
+        upstreamBody = objectMapper.writeValueAsBytes(
+                MapperUtil.convertList(Fixtures.bookings(rows, rows), MapperUtil::convertToBookingDto));
+    }
+
+    @Benchmark
+    public int objectTree() throws IOException {
+        Object body = jsonConverter.read(Object.class, upstream(upstreamBody));
+        jsonConverter.write(body, MediaType.APPLICATION_JSON, downstream.reset());
+        return downstream.size();
+    }
+
+    @Benchmark
+    public int passThrough() throws IOException {
+        byte[] body = byteConverter.read(byte[].class, upstream(upstreamBody));
+        byteConverter.write(body, MediaType.APPLICATION_JSON, downstream.reset());
+        return downstream.size();
+    }
+
+    private static HttpInputMessage upstream(byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setContentLength(body.length);
+        return new HttpInputMessage() {
+            private final InputStream input = new ByteArrayInputStream(body);
+
+            @Override
+            public InputStream getBody() {
+                return input;
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return headers;
+            }
+        };
+    }
+
+    /**
+     * Ответ шлюза клиенту, буфер переиспользуется между вызовами.
+     */
+    private static class Downstream implements HttpOutputMessage {
+        private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        private HttpHeaders headers;
+
+        Downstream reset() {
+            headers = new HttpHeaders();
+            output.reset();
+            return this;
+        }
+
+        int size() {
+            return output.size();
+        }
+
+        @Override
+        public OutputStream getBody() {
+            return output;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
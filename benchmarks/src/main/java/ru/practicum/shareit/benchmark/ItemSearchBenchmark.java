@@ -0,0 +1,135 @@
+package ru.practicum.shareit.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск вещей по тексту (ItemServiceImpl.searchItemsByText) и его ETag на таблице из миллиона вещей.
+ * Для postgresql поднимается встроенный PostgreSQL с pg_trgm, так что замеряются trigram-индексы
+ * и ранжирование через similarity; h2 показывает запасной путь без индексов.
+ * Встроенный PostgreSQL не запускается от root.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ItemSearchBenchmark {
+    private static final int BATCH_SIZE = 5_000;
+    private static final int PAGE_SIZE = 20;
+    private static final String[] ADJECTIVES = {
+        "новая", "старая", "мощная", "компактная", "лёгкая", "тяжёлая", "складная", "детская", "садовая",
+        "туристическая", "профессиональная", "надёжная", "удобная", "большая", "маленькая", "красная",
+        "синяя", "зелёная", "чёрная", "белая"
+    };
+    private static final String[] NOUNS = {
+        "дрель", "пила", "лестница", "палатка", "лодка", "тачка", "газонокосилка", "шлифмашина", "стремянка",
+        "кувалда", "ножовка", "болгарка", "рулетка", "горелка", "сумка", "коляска", "велосипедная рама",
+        "кофеварка", "мультиварка", "гладильная доска", "швейная машина", "сушилка", "люстра", "палка",
+        "бензопила", "спальная сумка", "лопата", "мотыга", "тележка", "печка", "кастрюля", "сковорода",
+        "камера", "приставка", "колонка", "проекторная стойка", "гитара", "скрипка", "доска для сёрфинга",
+        "байдарка"
+    };
+    @Param({"1000000"})
+    private int items;
+    @Param({"h2", "postgresql"})
+    private String database;
+    private EmbeddedPostgres postgres;
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        if ("postgresql".equals(database)) {
+            // без явной локали initdb берёт её из окружения, и в локали C upper() и pg_trgm не видят кириллицу
+            postgres = EmbeddedPostgres.builder().setLocaleConfig("locale", "C.UTF-8").start();
+            String url = postgres.getJdbcUrl("postgres", "postgres") + "&reWriteBatchedInserts=true";
+            context = BenchmarkContext.start(Map.of(
+                    "spring.datasource.driverClassName", "org.postgresql.Driver",
+                    "spring.datasource.url", url,
+                    "spring.datasource.username", "postgres"));
+        } else {
+            context = BenchmarkContext.start();
+        }
+        itemService = context.getBean(ItemService.class);
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        if (postgres != null) postgres.close();
+    }
+
+    /**
+     * Слово из названия примерно каждой сороковой вещи: десятки тысяч совпадений, которые надо ранжировать.
+     */
+    @Benchmark
+    public List<ItemDto> searchFrequentWord() {
+        return itemService.searchItemsByText("дрель", 0, PAGE_SIZE);
+    }
+
+    /**
+     * Слово из описания каждой пятидесятитысячной вещи: индекс отбирает два десятка строк.
+     */
+    @Benchmark
+    public List<ItemDto> searchRareWord() {
+        return itemService.searchItemsByText("юбилейная", 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Optional<String> searchVersionTag() {
+        return itemService.getSearchVersionTag("дрель");
+    }
+
+    /**
+     * Вставляет вещи напрямую через JDBC пакетами: через JPA миллион строк грузился бы дольше самого замера.
+     */
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("insert into users (id, name, email) values (1, 'owner', 'owner@bench.test')");
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= items; i++) {
+            String adjective = ADJECTIVES[i % ADJECTIVES.length];
+            String noun = NOUNS[(i / ADJECTIVES.length) % NOUNS.length];
+            String description = i % 50_000 == 1
+                    ? "юбилейная вещь, " + adjective + " " + noun
+                    : adjective + " " + noun + ", состояние " + (i % 5 + 1) + " из 5";
+            batch.add(new Object[]{(long) i, noun + " " + adjective + " №" + i, description, i % 10 != 0});
+            if (batch.size() == BATCH_SIZE) {
+                insertItems(jdbcTemplate, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) insertItems(jdbcTemplate, batch);
+        if (postgres != null) jdbcTemplate.execute("analyze items");
+    }
+
+    private static void insertItems(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id) " +
+                "values (?, ?, ?, ?, 1)", batch);
+    }
+}
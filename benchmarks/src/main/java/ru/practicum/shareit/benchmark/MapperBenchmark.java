@@ -0,0 +1,64 @@
+package ru.practicum.shareit.benchmark;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemForBookingDto;
+import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapperBenchmark {
+    private final ModelMapper modelMapper = new ModelMapper();
+    @Param({"20", "1000"})
+    private int rows;
+    private List<Booking> bookings;
+
+    @Setup
+    public void setUp() {
+        bookings = Fixtures.bookings(rows, 50);
+    }
+
+    @Benchmark
+    public List<BookingDto> handWrittenMapping() {
+        return MapperUtil.convertList(bookings, MapperUtil::convertToBookingDto);
+    }
+
+    @Benchmark
+    public List<ItemDto> itemMapping() {
+        return MapperUtil.convertList(bookings, booking -> MapperUtil.convertToItemDto(booking.getItem()));
+    }
+
+    @Benchmark
+    public List<BookingDto> modelMapperMapping() {
+        return bookings.stream().map(booking -> BookingDto.builder()
+                .id(booking.getId())
+                .item(modelMapper.map(booking.getItem(), ItemForBookingDto.class))
+                .booker(modelMapper.map(booking.getUser(), UserDto.class))
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getState())
+                .build()).collect(Collectors.toList());
+    }
+}
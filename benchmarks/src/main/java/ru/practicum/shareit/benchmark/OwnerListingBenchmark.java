@@ -0,0 +1,93 @@
+package ru.practicum.shareit.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Список вещей владельца с последним и ближайшим бронированием (ItemServiceImpl.getAllItemsByOwnerId).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class OwnerListingBenchmark {
+    private static final int BOOKINGS_PER_ITEM = 20;
+    @Param({"10", "200"})
+    private int items;
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private long ownerId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        itemService = context.getBean(ItemService.class);
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        ItemRepository itemRepository = context.getBean(ItemRepository.class);
+        BookingRepository bookingRepository = context.getBean(BookingRepository.class);
+
+        User owner = userRepository.save(User.builder().name("owner").email("owner@bench.test").build());
+        User booker = userRepository.save(User.builder().name("booker").email("booker@bench.test").build());
+        ownerId = owner.getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Вещь " + i)
+                    .description("описание вещи " + i)
+                    .available(true)
+                    .owner(owner)
+                    .build());
+            for (int j = 0; j < BOOKINGS_PER_ITEM; j++) {
+                LocalDateTime start = now.plusDays(j - BOOKINGS_PER_ITEM / 2);
+                bookings.add(Booking.builder()
+                        .item(item)
+                        .user(booker)
+                        .start(start)
+                        .end(start.plusHours(12))
+                        .state(State.APPROVED)
+                        .itemOwnerId(ownerId)
+                        .build());
+            }
+        }
+        bookingRepository.saveAll(bookings);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ItemDto> ownerItems() {
+        return itemService.getAllItemsByOwnerId(ownerId, 0, items);
+    }
+}
@@ -1,16 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayTransportFactory;
 
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,43 +19,49 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(GatewayTransportFactory transports) {
+        super(transports.forPath(API_PREFIX));
     }
 
-    public ResponseEntity<Object> getBookingsByUserId(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookingsByUserId(long userId, BookingState state, Integer from, Integer size,
+                                                            String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        return get(appendCursor("?state={state}&from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByOwnerId(long ownerId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getBookingsByOwnerId(long ownerId, BookingState state, Integer from,
+                                                             Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", ownerId, parameters);
+        ));
+        return get(appendCursor("/owner?state={state}&from={from}&size={size}", parameters, cursor), ownerId,
+                parameters);
     }
 
 
-    public ResponseEntity<Object> createBooking(long userId, BookingCreationDto requestDto) {
+    public Mono<ResponseEntity<Object>> createBooking(long userId, BookingCreationDto requestDto) {
         return post("", userId, requestDto);
     }
 
-    public ResponseEntity<Object> confirmationBooking(long ownerId, long bookingId, boolean approved) {
+    public Mono<ResponseEntity<Object>> createBookings(long userId, List<BookingCreationDto> requestDtos) {
+        return post("/batch", userId, requestDtos);
+    }
+
+    public Mono<ResponseEntity<Object>> confirmationBooking(long ownerId, long bookingId, boolean approved) {
         return patch("/" + bookingId + "?approved=" + approved, ownerId);
     }
 
-    public ResponseEntity<Object> getBooking(long userId, long bookingId) {
+    public Mono<ResponseEntity<Object>> confirmationBookings(long ownerId, List<BookingDecisionDto> decisions) {
+        return patch("", ownerId, decisions);
+    }
+
+    public Mono<ResponseEntity<Object>> getBooking(long userId, long bookingId) {
         return get("/" + bookingId, userId);
     }
 }
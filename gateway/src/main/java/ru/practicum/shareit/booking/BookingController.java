@@ -13,17 +13,22 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.BookingDateException;
 import ru.practicum.shareit.exception.UnknownBookingStateException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
 
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static ru.practicum.shareit.client.BaseClient.USER_ID_HEADER;
 
@@ -33,50 +38,90 @@ import static ru.practicum.shareit.client.BaseClient.USER_ID_HEADER;
 @Slf4j
 @Validated
 public class BookingController {
+    /**
+     * Сколько элементов принимает один пакетный запрос: сервер держит блокировки всех строк пакета
+     * до конца транзакции, поэтому пакет не должен быть сколь угодно большим.
+     */
+    static final int MAX_BATCH_SIZE = 100;
+    private static final String BATCH_SIZE_MESSAGE = "в пакете должно быть от 1 до " + MAX_BATCH_SIZE + " элементов";
     private final BookingClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getAllBookingsByUserId(@RequestHeader(USER_ID_HEADER) long userId,
-                                                         @RequestParam(defaultValue = "ALL") String state,
-                                                         @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                         @RequestParam(defaultValue = "20") @Positive int size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByUserId(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "20") @Positive int size,
+            @RequestParam(required = false) String cursor) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new UnknownBookingStateException("Unknown state: " + state));
         log.info("Get-запрос: запрос на получение всех бронирований со статусом {} пользователя {}.", state, userId);
-        return client.getBookingsByUserId(userId, bookingState, from, size);
+        return client.getBookingsByUserId(userId, bookingState, from, size, cursor);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getAllBookingsByOwnerId(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                          @RequestParam(defaultValue = "ALL") String state,
-                                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                          @RequestParam(defaultValue = "20") @Positive int size) {
+    public Mono<ResponseEntity<Object>> getAllBookingsByOwnerId(
+            @RequestHeader(USER_ID_HEADER) long ownerId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+            @RequestParam(defaultValue = "20") @Positive int size,
+            @RequestParam(required = false) String cursor) {
         BookingState bookingState = BookingState.from(state)
                 .orElseThrow(() -> new UnknownBookingStateException("Unknown state: " + state));
         log.info("Get-запрос: запрос на получение всех бронирований со статусом {} владельца {}.", state, ownerId);
-        return client.getBookingsByOwnerId(ownerId, bookingState, from, size);
+        return client.getBookingsByOwnerId(ownerId, bookingState, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createBooking(@RequestHeader(USER_ID_HEADER) long userId,
-                                                @RequestBody @Valid BookingCreationDto bookingDto) {
+    public Mono<ResponseEntity<Object>> createBooking(@RequestHeader(USER_ID_HEADER) long userId,
+                                                      @RequestBody @Valid BookingCreationDto bookingDto) {
         checkValidBooking(bookingDto);
         log.info("Post-запрос: запрос на бронирование {} пользователем {}.", bookingDto, userId);
         return client.createBooking(userId, bookingDto);
     }
 
+    /**
+     * Пакет целиком отклоняется с 400, если хотя бы один элемент составлен неверно; отказы по занятости
+     * и доступности вещей сервер возвращает для каждого элемента отдельно. Размер пакета и поля элементов
+     * проверяет валидация метода, здесь остаётся только порядок дат, который аннотациями не выразить.
+     */
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Object>> createBookings(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE, message = BATCH_SIZE_MESSAGE)
+            List<@Valid @NotNull BookingCreationDto> bookingDtos) {
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            try {
+                checkValidBooking(bookingDtos.get(i));
+            } catch (BookingDateException e) {
+                throw new BookingDateException("бронирование " + i + ": " + e.getMessage());
+            }
+        }
+        log.info("Post-запрос: пакетное бронирование {} вещей пользователем {}.", bookingDtos.size(), userId);
+        return client.createBookings(userId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> confirmationBooking(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                      @PathVariable long bookingId,
-                                                      @RequestParam boolean approved) {
+    public Mono<ResponseEntity<Object>> confirmationBooking(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                            @PathVariable long bookingId,
+                                                            @RequestParam boolean approved) {
         log.info("Patch-запрос: {}-запрос на подтверждение бронирования с id {} пользователем {}.",
                 approved, bookingId, ownerId);
         return client.confirmationBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping
+    public Mono<ResponseEntity<Object>> confirmationBookings(
+            @RequestHeader(USER_ID_HEADER) long ownerId,
+            @RequestBody @Size(min = 1, max = MAX_BATCH_SIZE, message = BATCH_SIZE_MESSAGE)
+            List<@Valid @NotNull BookingDecisionDto> decisions) {
+        log.info("Patch-запрос: пакетное подтверждение {} бронирований пользователем {}.", decisions.size(), ownerId);
+        return client.confirmationBookings(ownerId, decisions);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
-                                                 @PathVariable long bookingId) {
+    public Mono<ResponseEntity<Object>> getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
+                                                       @PathVariable long bookingId) {
         log.info("Get-запрос: запрос на получение бронирования {} пользователем {}.", bookingId, userId);
         return client.getBooking(userId, bookingId);
     }
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Настройки соединений шлюза с сервером (gateway.client.*). Пул один на все клиенты шлюза.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "gateway.client")
+public class GatewayClientProperties {
+    /**
+     * blocking (RestTemplate) или reactive (WebClient).
+     */
+    private GatewayTransportFactory.Mode mode = GatewayTransportFactory.Mode.BLOCKING;
+    /**
+     * Всего соединений в пуле.
+     */
+    private int maxConnections = 500;
+    /**
+     * Соединений к одному адресу. Шлюз ходит на один сервер, поэтому по умолчанию равно max-connections.
+     */
+    private int maxConnectionsPerRoute = 500;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    /**
+     * Сколько ждать ответа сервера после отправки запроса.
+     */
+    private Duration readTimeout = Duration.ofSeconds(30);
+    /**
+     * Сколько запрос ждёт свободного соединения, когда пул исчерпан.
+     */
+    private Duration acquireTimeout = Duration.ofSeconds(5);
+    /**
+     * Простаивающее соединение закрывается по истечении этого времени. Должно быть меньше keep-alive
+     * сервера (у Tomcat 20 с), иначе шлюз будет брать из пула соединения, которые сервер уже закрыл.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(15);
+    /**
+     * HTTP/2 без TLS (h2c) к серверу. Работает только в режиме reactive: Apache HttpClient 4 знает лишь HTTP/1.1.
+     */
+    private boolean http2 = false;
+}
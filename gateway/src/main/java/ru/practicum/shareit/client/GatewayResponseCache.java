@@ -0,0 +1,95 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * Ответы сервера на чтение, сохранённые в памяти шлюза вместе с ETag.
+ *
+ * <p>Повторный запрос уходит на сервер с If-None-Match, и на 304 клиент получает тело из кэша,
+ * так что данные всегда актуальны, а по сети идёт только заголовок. gateway.cache.fresh-for
+ * разрешает отдавать запись без сверки с сервером в течение этого времени; по умолчанию 0 — сверять всегда.
+ * Размер кэша ограничен суммарным объёмом тел gateway.cache.max-size, статистика — в cache.* с cache=gateway.
+ */
+@Component
+public class GatewayResponseCache {
+    private final Cache<String, Entry> entries;
+    private final long freshForNanos;
+
+    @Autowired
+    public GatewayResponseCache(@Value("${gateway.cache.max-size:32MB}") DataSize maxSize,
+                                @Value("${gateway.cache.fresh-for:0s}") Duration freshFor,
+                                MeterRegistry meterRegistry) {
+        this(maxSize, freshFor, meterRegistry, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor где Caffeine выполняет обслуживание кэша, в том числе вытеснение по объёму
+     */
+    GatewayResponseCache(DataSize maxSize, Duration freshFor, MeterRegistry meterRegistry, Executor executor) {
+        this.entries = Caffeine.newBuilder()
+                .executor(executor)
+                .maximumWeight(maxSize.toBytes())
+                .<String, Entry>weigher((key, entry) -> key.length() + entry.response.getBody().length)
+                .recordStats()
+                .build();
+        this.freshForNanos = freshFor.toNanos();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "gateway");
+    }
+
+    /**
+     * Отдаёт ответ по ключу, при необходимости сверяя его с сервером.
+     *
+     * @param send отправляет запрос на сервер с переданными условными заголовками
+     */
+    public Mono<ResponseEntity<byte[]>> exchange(String key,
+                                                 Function<HttpHeaders, Mono<ResponseEntity<byte[]>>> send) {
+        Entry cached = entries.getIfPresent(key);
+        long now = System.nanoTime();
+        if (cached != null && now - cached.validatedAt < freshForNanos) {
+            return Mono.just(cached.response);
+        }
+        HttpHeaders conditional = new HttpHeaders();
+        if (cached != null) conditional.setIfNoneMatch(cached.etag);
+        return send.apply(conditional).map(response -> {
+            if (cached != null && response.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+                entries.put(key, new Entry(cached.response, cached.etag, System.nanoTime()));
+                return cached.response;
+            }
+            String etag = response.getHeaders().getETag();
+            if (response.getStatusCode() == HttpStatus.OK && etag != null && response.hasBody()) {
+                entries.put(key, new Entry(response, etag, System.nanoTime()));
+            } else {
+                entries.invalidate(key);
+            }
+            return response;
+        });
+    }
+
+    private static class Entry {
+        private final ResponseEntity<byte[]> response;
+        private final String etag;
+        private final long validatedAt;
+
+        Entry(ResponseEntity<byte[]> response, String etag, long validatedAt) {
+            this.response = response;
+            this.etag = etag;
+            this.validatedAt = validatedAt;
+        }
+    }
+}
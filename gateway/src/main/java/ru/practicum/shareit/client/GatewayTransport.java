@@ -0,0 +1,18 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Способ доставки запроса шлюза на сервер. Тело ответа возвращается байтами как есть, без разбора JSON;
+ * ответ с ошибкой не бросается исключением, а приходит так же, со статусом сервера.
+ */
+public interface GatewayTransport {
+    <T> Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, String path, @Nullable Map<String, Object> parameters,
+                                             HttpHeaders headers, @Nullable T body);
+}
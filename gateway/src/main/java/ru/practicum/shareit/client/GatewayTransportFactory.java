@@ -0,0 +1,148 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Создаёт транспорт клиентов шлюза по gateway.client.mode: blocking (RestTemplate) или reactive (WebClient).
+ * Все клиенты работают через один пул соединений с настройками из {@link GatewayClientProperties},
+ * заполненность пула видна в /actuator/metrics: httpcomponents.httpclient.pool.* в режиме blocking
+ * и reactor.netty.connection.provider.* в режиме reactive. Время ответов сервера по каждому пути клиента
+ * пишется в gateway.upstream.requests, см. {@link TimedGatewayTransport}.
+ */
+@Slf4j
+@Component
+public class GatewayTransportFactory {
+    private static final String POOL_NAME = "shareit-server";
+    private final String serverUrl;
+    private final GatewayClientProperties properties;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final WebClient.Builder webClientBuilder;
+    private final MeterRegistry meterRegistry;
+    private final CloseableHttpClient blockingClient;
+    private final ConnectionProvider connectionProvider;
+    private final HttpClient reactiveClient;
+
+    public GatewayTransportFactory(@Value("${server.url}") String serverUrl,
+                                   GatewayClientProperties properties,
+                                   RestTemplateBuilder restTemplateBuilder,
+                                   WebClient.Builder webClientBuilder,
+                                   MeterRegistry meterRegistry) {
+        this.serverUrl = serverUrl;
+        this.properties = properties;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.webClientBuilder = webClientBuilder;
+        this.meterRegistry = meterRegistry;
+        if (properties.getMode() == Mode.REACTIVE) {
+            this.blockingClient = null;
+            this.connectionProvider = newConnectionProvider(properties);
+            this.reactiveClient = newReactiveClient(connectionProvider, properties);
+        } else {
+            if (properties.isHttp2()) {
+                log.warn("gateway.client.http2 не действует в режиме blocking: Apache HttpClient 4 работает по HTTP/1.1");
+            }
+            this.blockingClient = newBlockingClient(properties, meterRegistry);
+            this.connectionProvider = null;
+            this.reactiveClient = null;
+        }
+    }
+
+    public GatewayTransport forPath(String apiPrefix) {
+        return new TimedGatewayTransport(newTransport(apiPrefix), meterRegistry, apiPrefix);
+    }
+
+    private GatewayTransport newTransport(String apiPrefix) {
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+        if (properties.getMode() == Mode.REACTIVE) {
+            return new WebClientTransport(webClientBuilder.clone()
+                    .uriBuilderFactory(uriBuilderFactory)
+                    .clientConnector(new ReactorClientHttpConnector(reactiveClient))
+                    .build());
+        }
+        return new RestTemplateTransport(restTemplateBuilder
+                .uriTemplateHandler(uriBuilderFactory)
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(blockingClient))
+                .build());
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (connectionProvider != null) connectionProvider.dispose();
+        if (blockingClient != null) blockingClient.close();
+    }
+
+    private static CloseableHttpClient newBlockingClient(GatewayClientProperties properties,
+                                                         MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(properties.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(properties.getMaxConnectionsPerRoute());
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        long idleMillis = properties.getIdleTimeout().toMillis();
+        return HttpClientBuilder.create()
+                .useSystemProperties()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) properties.getConnectTimeout().toMillis())
+                        .setSocketTimeout((int) properties.getReadTimeout().toMillis())
+                        .setConnectionRequestTimeout((int) properties.getAcquireTimeout().toMillis())
+                        .build())
+                // Keep-Alive сервера соблюдается, но соединение не живёт в пуле дольше idle-timeout
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0 ? Math.min(serverKeepAlive, idleMillis) : idleMillis;
+                })
+                .evictExpiredConnections()
+                .evictIdleConnections(idleMillis, TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    /**
+     * В reactor-netty пул заводится на каждый адрес отдельно, поэтому предел на маршрут здесь и есть общий.
+     */
+    private static ConnectionProvider newConnectionProvider(GatewayClientProperties properties) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(Math.min(properties.getMaxConnections(), properties.getMaxConnectionsPerRoute()))
+                .pendingAcquireTimeout(properties.getAcquireTimeout())
+                .maxIdleTime(properties.getIdleTimeout())
+                .evictInBackground(properties.getIdleTimeout())
+                .metrics(true)
+                .build();
+    }
+
+    private static HttpClient newReactiveClient(ConnectionProvider connectionProvider,
+                                                GatewayClientProperties properties) {
+        return HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) properties.getConnectTimeout().toMillis())
+                .responseTimeout(properties.getReadTimeout())
+                .protocol(properties.isHttp2()
+                        ? new HttpProtocol[]{HttpProtocol.H2C, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11});
+    }
+
+    public enum Mode {
+        BLOCKING,
+        REACTIVE
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.actuate.metrics.http.Outcome;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Замеряет каждый запрос клиента шлюза к серверу в таймере gateway.upstream.requests.
+ * Id в путях клиенты подставляют строкой, поэтому в тег uri они попадают как {id},
+ * иначе каждый id давал бы отдельную серию.
+ */
+public class TimedGatewayTransport implements GatewayTransport {
+    private static final String METRIC_NAME = "gateway.upstream.requests";
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private final GatewayTransport delegate;
+    private final MeterRegistry meterRegistry;
+    private final String apiPrefix;
+
+    public TimedGatewayTransport(GatewayTransport delegate, MeterRegistry meterRegistry, String apiPrefix) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.apiPrefix = apiPrefix;
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+                                                     @Nullable Map<String, Object> parameters,
+                                                     HttpHeaders headers, @Nullable T body) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            AtomicReference<Integer> status = new AtomicReference<>();
+            return delegate.exchange(method, path, parameters, headers, body)
+                    .doOnNext(response -> status.set(response.getStatusCodeValue()))
+                    .doFinally(signal -> {
+                        Integer code = status.get();
+                        if (code != null) {
+                            sample.stop(timer(method, path, Outcome.forStatus(code), String.valueOf(code)));
+                        } else {
+                            sample.stop(timer(method, path, Outcome.UNKNOWN, statusWithoutResponse(signal)));
+                        }
+                    });
+        });
+    }
+
+    /**
+     * Тег status, когда ответа нет: ошибка соединения, отмена (клиент шлюза отключился) или пустой Mono.
+     */
+    private static String statusWithoutResponse(SignalType signal) {
+        switch (signal) {
+            case ON_ERROR:
+                return "IO_ERROR";
+            case CANCEL:
+                return "CANCELLED";
+            default:
+                return "EMPTY";
+        }
+    }
+
+    private Timer timer(HttpMethod method, String path, Outcome outcome, String status) {
+        return Timer.builder(METRIC_NAME)
+                .tags(Tags.of("uri", uriTemplate(path), "method", method.name(), "status", status)
+                        .and(outcome.asTag()))
+                .register(meterRegistry);
+    }
+
+    private String uriTemplate(String path) {
+        int query = path.indexOf('?');
+        String withoutQuery = query >= 0 ? path.substring(0, query) : path;
+        return apiPrefix + ID_SEGMENT.matcher(withoutQuery).replaceAll("/{id}");
+    }
+}
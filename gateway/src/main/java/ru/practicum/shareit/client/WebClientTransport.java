@@ -0,0 +1,34 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Неблокирующий режим: поток Tomcat освобождается сразу после отправки запроса,
+ * ответ дописывается асинхронно из event loop клиента.
+ */
+public class WebClientTransport implements GatewayTransport {
+    private final WebClient webClient;
+
+    public WebClientTransport(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    @Override
+    public <T> Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+                                                     @Nullable Map<String, Object> parameters,
+                                                     HttpHeaders headers, @Nullable T body) {
+        WebClient.RequestBodySpec request = (parameters != null
+                ? webClient.method(method).uri(path, parameters)
+                : webClient.method(method).uri(path))
+                .headers(h -> h.addAll(headers));
+        WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+        return spec.exchangeToMono(response -> response.toEntity(byte[].class));
+    }
+}
@@ -6,7 +6,10 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolver;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Slf4j
 @RestControllerAdvice
@@ -19,10 +22,29 @@ public class GatewayExceptionHandler extends DefaultHandlerExceptionResolver {
                 exp.getMessage())));
     }
 
+    /**
+     * Нарушения валидации параметров методов контроллеров (@Validated): путь без имени метода,
+     * например bookingDtos[2].start, и сообщение ограничения.
+     */
+    @ExceptionHandler(value = ConstraintViolationException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExpCount(final ConstraintViolationException exp) {
+        String message = exp.getConstraintViolations().stream()
+                .map(GatewayExceptionHandler::describe)
+                .sorted()
+                .collect(Collectors.joining("; "));
+        log.error(message);
+        return ResponseEntity.status(400).body((Map.of("error", "Ошибка при валидации", "errorMessage", message)));
+    }
+
     @ExceptionHandler(value = UnknownBookingStateException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final UnknownBookingStateException exp) {
         log.error(exp.getMessage());
         return ResponseEntity.status(500).body((Map.of("error", "Unknown state: UNSUPPORTED_STATUS", "errorMessage",
                 exp.getMessage())));
     }
+
+    private static String describe(ConstraintViolation<?> violation) {
+        String path = violation.getPropertyPath().toString();
+        return path.substring(path.indexOf('.') + 1) + ": " + violation.getMessage();
+    }
 }
@@ -1,17 +1,17 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.GatewayTransportFactory;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -19,45 +19,40 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(GatewayTransportFactory transports, GatewayResponseCache responseCache) {
+        super(transports.forPath(API_PREFIX), responseCache);
     }
 
-    public ResponseEntity<Object> getItem(long itemId, long userId) {
-        return get("/" + itemId, userId);
+    public Mono<ResponseEntity<Object>> getItem(long itemId, long userId) {
+        return cachedGet("/" + itemId, userId, null, true);
     }
 
-    public ResponseEntity<Object> getItemsByUserId(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getItemsByUserId(long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        ));
+        return get(appendCursor("?from={from}&size={size}", parameters, cursor), userId, parameters);
     }
 
-    public ResponseEntity<Object> createItem(long userId, ItemCreationDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(long userId, ItemCreationDto itemDto) {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> updateItem(long itemId, long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(long itemId, long userId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> getItemByText(String text, Integer from, Integer size, long userId) {
+    public Mono<ResponseEntity<Object>> getItemByText(String text, Integer from, Integer size, long userId) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
                 "size", size
         );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return cachedGet("/search?text={text}&from={from}&size={size}", userId, parameters, false);
     }
 
-    public ResponseEntity<Object> addComment(long userId, long itemId, CommentCreationDto comment) {
+    public Mono<ResponseEntity<Object>> addComment(long userId, long itemId, CommentCreationDto comment) {
         return post("/" + itemId + "/comment", userId, comment);
     }
 }
@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -32,47 +33,49 @@ public class ItemController {
     private final ItemClient client;
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@PathVariable long itemId,
-                                              @RequestHeader(USER_ID_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> getItemById(@PathVariable long itemId,
+                                                    @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Get-запрос: получение вещи по id {}.", itemId);
         return client.getItem(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllItemsByUserId(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                      @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                      @RequestParam(defaultValue = "20") @Positive int size) {
+    public Mono<ResponseEntity<Object>> getAllItemsByUserId(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                            @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                            @RequestParam(defaultValue = "20") @Positive int size,
+                                                            @RequestParam(required = false) String cursor) {
         log.info("Get-запрос: получение всех вещей пользователя с id {}.", ownerId);
-        return client.getItemsByUserId(ownerId, from, size);
+        return client.getItemsByUserId(ownerId, from, size, cursor);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createItem(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @Valid @RequestBody ItemCreationDto itemDto) {
+    public Mono<ResponseEntity<Object>> createItem(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @Valid @RequestBody ItemCreationDto itemDto) {
         log.info("Post-запрос: создание нового итема {} пользователем {}.", itemDto, userId);
         return client.createItem(userId, itemDto);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> updateItem(@PathVariable long itemId, @RequestHeader(USER_ID_HEADER) long userId,
-                                             @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<Object>> updateItem(@PathVariable long itemId,
+                                                   @RequestHeader(USER_ID_HEADER) long userId,
+                                                   @RequestBody ItemDto itemDto) {
         log.info("Patch-запрос: обновление существующего итема с id {} пользователем {}.", itemId, userId);
         return client.updateItem(itemId, userId, itemDto);
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(@RequestParam String text,
-                                                    @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                    @RequestParam(defaultValue = "20") @Positive int size,
-                                                    @RequestHeader(USER_ID_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> searchItemsByText(@RequestParam String text,
+                                                          @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                          @RequestParam(defaultValue = "20") @Positive int size,
+                                                          @RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Get-запрос: поиск вещи по тексту {} в названии или описании.", text);
         return client.getItemByText(text, from, size, userId);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(USER_ID_HEADER) long userId,
-                                             @PathVariable long itemId,
-                                             @Valid @RequestBody CommentCreationDto comment) {
+    public Mono<ResponseEntity<Object>> addComment(@RequestHeader(USER_ID_HEADER) long userId,
+                                                   @PathVariable long itemId,
+                                                   @Valid @RequestBody CommentCreationDto comment) {
         log.info("Post-запрос: добавление комментария от пользователя {} к вещи {}.", userId, itemId);
         return client.addComment(userId, itemId, comment);
     }
@@ -1,15 +1,15 @@
 package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
+import ru.practicum.shareit.client.GatewayTransportFactory;
 import ru.practicum.shareit.request.dto.RequestCreationDto;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @Service
@@ -17,32 +17,27 @@ public class RequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public RequestClient(@Value("${server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public RequestClient(GatewayTransportFactory transports, GatewayResponseCache responseCache) {
+        super(transports.forPath(API_PREFIX), responseCache);
     }
 
-    public ResponseEntity<Object> getRequest(long userId, long requestId) {
-        return get("/" + requestId, userId);
+    public Mono<ResponseEntity<Object>> getRequest(long userId, long requestId) {
+        return cachedGet("/" + requestId, userId, null, true);
     }
 
-    public ResponseEntity<Object> getAllRequests(long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
+    public Mono<ResponseEntity<Object>> getAllRequests(long userId, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "from", from,
                 "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        ));
+        return cachedGet(appendCursor("/all?from={from}&size={size}", parameters, cursor), userId, parameters, true);
     }
 
-    public ResponseEntity<Object> getRequestsByUserId(long userId) {
-        return get("", userId);
+    public Mono<ResponseEntity<Object>> getRequestsByUserId(long userId) {
+        return cachedGet("", userId, null, true);
     }
 
-    public ResponseEntity<Object> createRequest(long userId, RequestCreationDto requestDto) {
+    public Mono<ResponseEntity<Object>> createRequest(long userId, RequestCreationDto requestDto) {
         return post("", userId, requestDto);
     }
 }
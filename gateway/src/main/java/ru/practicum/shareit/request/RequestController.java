@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.request.dto.RequestCreationDto;
 
 import javax.validation.Valid;
@@ -29,29 +30,30 @@ public class RequestController {
     private final RequestClient client;
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getRequestById(@RequestHeader(USER_ID_HEADER) long userId,
-                                                 @PathVariable long requestId) {
+    public Mono<ResponseEntity<Object>> getRequestById(@RequestHeader(USER_ID_HEADER) long userId,
+                                                       @PathVariable long requestId) {
         log.info("Get-запрос: получение запроса с id {} юзером {}", requestId, userId);
         return client.getRequest(userId, requestId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllRequests(@RequestHeader(USER_ID_HEADER) long userId,
-                                                 @RequestParam(defaultValue = "0") @PositiveOrZero int from,
-                                                 @RequestParam(defaultValue = "20") @Positive int size) {
+    public Mono<ResponseEntity<Object>> getAllRequests(@RequestHeader(USER_ID_HEADER) long userId,
+                                                       @RequestParam(defaultValue = "0") @PositiveOrZero int from,
+                                                       @RequestParam(defaultValue = "20") @Positive int size,
+                                                       @RequestParam(required = false) String cursor) {
         log.info("Get-запрос: получение постраничного списка всех существующих запросов для юзера {}", userId);
-        return client.getAllRequests(userId, from, size);
+        return client.getAllRequests(userId, from, size, cursor);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getRequestsByUserId(@RequestHeader(USER_ID_HEADER) long userId) {
+    public Mono<ResponseEntity<Object>> getRequestsByUserId(@RequestHeader(USER_ID_HEADER) long userId) {
         log.info("Get-запрос: получение списка запросов юзера {}", userId);
         return client.getRequestsByUserId(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createRequest(@RequestHeader(USER_ID_HEADER) long userId,
-                                                @RequestBody @Valid RequestCreationDto requestCreationDto) {
+    public Mono<ResponseEntity<Object>> createRequest(@RequestHeader(USER_ID_HEADER) long userId,
+                                                      @RequestBody @Valid RequestCreationDto requestCreationDto) {
         log.info("Post-запрос: добавление нового запроса вещи от пользователя {}: {}.", userId, requestCreationDto);
         return client.createRequest(userId, requestCreationDto);
     }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -26,37 +27,37 @@ public class UserController {
     private final UserClient client;
 
     @GetMapping
-    public ResponseEntity<Object> getAllUsers() {
+    public Mono<ResponseEntity<Object>> getAllUsers() {
         log.info("Get-запрос: получение списка всех пользователей.");
         return client.getAllUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> getUserById(@PathVariable long userId) {
         log.info("Get-запрос: получение пользователя по id {}.", userId);
         return client.getUserById(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@Valid @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> createUser(@Valid @RequestBody UserDto userDto) {
         log.info("Post-запрос: добавление нового пользователя: {}.", userDto);
         return client.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable long userId, @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<Object>> updateUser(@PathVariable long userId, @RequestBody UserDto userDto) {
         log.info("Patch-запрос: обновление существующего пользователя под id: {}.", userId);
         return client.updateUser(userId, userDto);
     }
 
     @DeleteMapping
-    public ResponseEntity<Object> deleteAllUsers() {
+    public Mono<ResponseEntity<Object>> deleteAllUsers() {
         log.info("Delete-запрос: удаление всех пользователей.");
         return client.deleteAllUsers();
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUserById(@PathVariable long userId) {
+    public Mono<ResponseEntity<Object>> deleteUserById(@PathVariable long userId) {
         log.info("Delete-запрос: удаление пользователя по id {}.", userId);
         return client.deleteUserById(userId);
     }
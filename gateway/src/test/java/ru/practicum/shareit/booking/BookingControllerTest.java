@@ -0,0 +1,188 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.validation.beanvalidation.MethodValidationInterceptor;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.exception.GatewayExceptionHandler;
+
+import javax.validation.Validation;
+import javax.validation.ValidatorFactory;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class BookingControllerTest {
+    @Mock
+    private BookingClient client;
+    private ValidatorFactory validatorFactory;
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private MockMvc mvc;
+
+    /**
+     * Контроллер оборачивается в прокси с валидацией методов, как это делает MethodValidationPostProcessor
+     * для @Validated-бинов в приложении.
+     */
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        ProxyFactory proxyFactory = new ProxyFactory(new BookingController(client));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvice(new MethodValidationInterceptor(validatorFactory.getValidator()));
+        mvc = MockMvcBuilders
+                .standaloneSetup(proxyFactory.getProxy())
+                .setControllerAdvice(new GatewayExceptionHandler())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Test
+    void createBookings_acceptsBatchOfMaxSize() throws Exception {
+        when(client.createBookings(eq(1L), anyList()))
+                .thenReturn(Mono.just(ResponseEntity.ok("[]".getBytes(StandardCharsets.UTF_8))));
+
+        MvcResult result = mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(Collections.nCopies(BookingController.MAX_BATCH_SIZE,
+                                booking(1, 2))))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void createBookings_rejectsBatchOverMaxSize() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(Collections.nCopies(BookingController.MAX_BATCH_SIZE + 1,
+                                booking(1, 2))))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is("bookingDtos: в пакете должно быть от 1 до 100 элементов")));
+
+        verify(client, never()).createBookings(anyLong(), anyList());
+    }
+
+    @Test
+    void createBookings_rejectsEmptyBatch() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content("[]")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is("bookingDtos: в пакете должно быть от 1 до 100 элементов")));
+    }
+
+    @Test
+    void createBookings_rejectsNullEntry() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                        .content("[" + mapper.writeValueAsString(booking(1, 2)) + ",null]")
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", startsWith("bookingDtos[1]")));
+
+        verify(client, never()).createBookings(anyLong(), anyList());
+    }
+
+    @Test
+    void createBookings_reportsIndexOfEntryWithWrongDates() throws Exception {
+        List<BookingCreationDto> batch = List.of(booking(1, 2), booking(3, 2));
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(batch))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage",
+                        is("бронирование 1: некорректно указаны сроки начала/конца аренды")));
+
+        verify(client, never()).createBookings(anyLong(), anyList());
+    }
+
+    @Test
+    void createBookings_reportsIndexOfEntryViolatingConstraints() throws Exception {
+        BookingCreationDto past = BookingCreationDto.builder()
+                .itemId(1L)
+                .start(LocalDateTime.now().minusDays(2))
+                .end(LocalDateTime.now().plusDays(1))
+                .build();
+
+        mvc.perform(post("/bookings/batch")
+                        .content(mapper.writeValueAsString(List.of(booking(1, 2), booking(2, 3), past)))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", startsWith("bookingDtos[2].start: ")));
+    }
+
+    @Test
+    void confirmationBookings_rejectsBatchOverMaxSize() throws Exception {
+        mvc.perform(patch("/bookings")
+                        .content(mapper.writeValueAsString(Collections.nCopies(BookingController.MAX_BATCH_SIZE + 1,
+                                new BookingDecisionDto(1L, true))))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", is("decisions: в пакете должно быть от 1 до 100 элементов")));
+
+        verify(client, never()).confirmationBookings(anyLong(), anyList());
+    }
+
+    @Test
+    void confirmationBookings_reportsIndexOfIncompleteDecision() throws Exception {
+        mvc.perform(patch("/bookings")
+                        .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(1L, true),
+                                new BookingDecisionDto(2L, null))))
+                        .header("X-Sharer-User-Id", 1)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorMessage", startsWith("decisions[1].approved: ")));
+    }
+
+    private static BookingCreationDto booking(int startInDays, int endInDays) {
+        LocalDateTime now = LocalDateTime.now();
+        return BookingCreationDto.builder()
+                .itemId(1L)
+                .start(now.plusDays(startInDays))
+                .end(now.plusDays(endInDays))
+                .build();
+    }
+}
@@ -0,0 +1,122 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BaseClientTest {
+    private MockWebServer server;
+    private GatewayTransportFactory factory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (factory != null) factory.close();
+        server.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(GatewayTransportFactory.Mode.class)
+    void get_relaysEndToEndHeadersOnly(GatewayTransportFactory.Mode mode) throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.ETAG, "\"5\"")
+                .setHeader(HttpHeaders.CONNECTION, "keep-alive")
+                .setHeader("Keep-Alive", "timeout=20")
+                .setChunkedBody("{\"id\":1,\"name\":\"Дрель\"}", 4));
+
+        ResponseEntity<Object> response = client(mode).getItem(1, 7).block();
+
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getHeader(BaseClient.USER_ID_HEADER)).isEqualTo("7");
+        assertThat(request.getHeader(HttpHeaders.ACCEPT)).isEqualTo(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("{\"id\":1,\"name\":\"Дрель\"}".getBytes(StandardCharsets.UTF_8));
+        HttpHeaders headers = response.getHeaders();
+        assertThat(headers.getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(headers.getETag()).isEqualTo("\"5\"");
+        assertThat(headers.containsKey(HttpHeaders.TRANSFER_ENCODING)).isFalse();
+        assertThat(headers.containsKey(HttpHeaders.CONNECTION)).isFalse();
+        assertThat(headers.containsKey("Keep-Alive")).isFalse();
+        assertThat(headers.containsKey(HttpHeaders.CONTENT_LENGTH)).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(GatewayTransportFactory.Mode.class)
+    void post_relaysServerErrorBodyAndHeaders(GatewayTransportFactory.Mode mode) {
+        String body = "{\"error\":\"Ошибка при валидации\",\"errorMessage\":\"данное время для бронирования недоступно\"}";
+        server.enqueue(new MockResponse()
+                .setResponseCode(409)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader("X-Request-Id", "abc")
+                .setBody(body));
+
+        ResponseEntity<Object> response = client(mode).create(7, Map.of("itemId", 1)).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+        assertThat(response.getBody()).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(response.getHeaders().getFirst("X-Request-Id")).isEqualTo("abc");
+        assertThat(response.getHeaders().containsKey(HttpHeaders.CONTENT_LENGTH)).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(GatewayTransportFactory.Mode.class)
+    void delete_relaysEmptyResponse(GatewayTransportFactory.Mode mode) {
+        server.enqueue(new MockResponse());
+
+        ResponseEntity<Object> response = client(mode).remove(1).block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.hasBody()).isFalse();
+    }
+
+    private TestClient client(GatewayTransportFactory.Mode mode) {
+        GatewayClientProperties properties = new GatewayClientProperties();
+        properties.setMode(mode);
+        factory = new GatewayTransportFactory("http://" + server.getHostName() + ":" + server.getPort(), properties,
+                new RestTemplateBuilder(), WebClient.builder(), new SimpleMeterRegistry());
+        return new TestClient(factory.forPath("/items"));
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(GatewayTransport transport) {
+            super(transport);
+        }
+
+        Mono<ResponseEntity<Object>> getItem(long itemId, long userId) {
+            return get("/" + itemId, userId);
+        }
+
+        Mono<ResponseEntity<Object>> create(long userId, Object body) {
+            return post("", userId, body);
+        }
+
+        Mono<ResponseEntity<Object>> remove(long itemId) {
+            return delete("/" + itemId);
+        }
+    }
+}
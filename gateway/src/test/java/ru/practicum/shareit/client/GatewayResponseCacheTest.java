@@ -0,0 +1,193 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayResponseCacheTest {
+    private MockWebServer server;
+    private GatewayTransportFactory factory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (factory != null) factory.close();
+        server.shutdown();
+    }
+
+    @Test
+    void cachedGet_neverServesOneUsersBodyToAnother() throws InterruptedException {
+        TestClient client = client(cache(DataSize.ofMegabytes(1), Duration.ZERO));
+        server.enqueue(json("{\"owner\":\"A\"}", "\"a1\""));
+        server.enqueue(json("{\"owner\":\"B\"}", "\"b1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"a1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"b1\""));
+
+        ResponseEntity<Object> firstA = client.getItem(1, 10).block();
+        ResponseEntity<Object> firstB = client.getItem(1, 20).block();
+        ResponseEntity<Object> secondA = client.getItem(1, 10).block();
+        ResponseEntity<Object> secondB = client.getItem(1, 20).block();
+
+        assertThat(body(firstA)).isEqualTo("{\"owner\":\"A\"}");
+        assertThat(body(firstB)).isEqualTo("{\"owner\":\"B\"}");
+        assertThat(body(secondA)).isEqualTo("{\"owner\":\"A\"}");
+        assertThat(body(secondB)).isEqualTo("{\"owner\":\"B\"}");
+        assertThat(server.takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isNull();
+        assertThat(server.takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isNull();
+        RecordedRequest revalidateA = server.takeRequest();
+        RecordedRequest revalidateB = server.takeRequest();
+        assertThat(revalidateA.getHeader(BaseClient.USER_ID_HEADER)).isEqualTo("10");
+        assertThat(revalidateA.getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"a1\"");
+        assertThat(revalidateB.getHeader(BaseClient.USER_ID_HEADER)).isEqualTo("20");
+        assertThat(revalidateB.getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"b1\"");
+    }
+
+    @Test
+    void cachedGet_servesCachedBodyOnNotModified() throws InterruptedException {
+        TestClient client = client(cache(DataSize.ofMegabytes(1), Duration.ZERO));
+        server.enqueue(json("{\"id\":1,\"name\":\"Дрель\"}", "\"3.0.0.0\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"3.0.0.0\""));
+
+        ResponseEntity<Object> first = client.getItem(1, 10).block();
+        ResponseEntity<Object> second = client.getItem(1, 10).block();
+
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"3.0.0.0\"");
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(second.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+        assertThat(second.getHeaders().getETag()).isEqualTo("\"3.0.0.0\"");
+        assertThat(body(second)).isEqualTo(body(first)).isEqualTo("{\"id\":1,\"name\":\"Дрель\"}");
+    }
+
+    @Test
+    void cachedGet_replacesEntryWhenServerSendsNewVersion() throws InterruptedException {
+        TestClient client = client(cache(DataSize.ofMegabytes(1), Duration.ZERO));
+        server.enqueue(json("{\"name\":\"Дрель\"}", "\"1\""));
+        server.enqueue(json("{\"name\":\"Перфоратор\"}", "\"2\""));
+        server.enqueue(new MockResponse().setResponseCode(304).setHeader(HttpHeaders.ETAG, "\"2\""));
+
+        client.getItem(1, 10).block();
+        ResponseEntity<Object> updated = client.getItem(1, 10).block();
+        ResponseEntity<Object> revalidated = client.getItem(1, 10).block();
+
+        assertThat(body(updated)).isEqualTo("{\"name\":\"Перфоратор\"}");
+        assertThat(body(revalidated)).isEqualTo("{\"name\":\"Перфоратор\"}");
+        server.takeRequest();
+        assertThat(server.takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"1\"");
+        assertThat(server.takeRequest().getHeader(HttpHeaders.IF_NONE_MATCH)).isEqualTo("\"2\"");
+    }
+
+    @Test
+    void exchange_evictsEntriesBeyondMaxSize() {
+        GatewayResponseCache cache = cache(DataSize.ofBytes(1000), Duration.ZERO);
+        for (String key : List.of("k1", "k2", "k3")) {
+            cache.exchange(key, conditional -> Mono.just(ok(new byte[400], "\"" + key + "\""))).block();
+        }
+
+        long cached = List.of("k1", "k2", "k3").stream().filter(key -> isCached(cache, key)).count();
+
+        assertThat(cached).isEqualTo(2);
+    }
+
+    @Test
+    void exchange_doesNotKeepBodyLargerThanMaxSize() {
+        GatewayResponseCache cache = cache(DataSize.ofBytes(1000), Duration.ZERO);
+
+        cache.exchange("big", conditional -> Mono.just(ok(new byte[1200], "\"1\""))).block();
+
+        assertThat(isCached(cache, "big")).isFalse();
+    }
+
+    @Test
+    void exchange_servesFreshEntryWithoutAskingServer() {
+        GatewayResponseCache cache = cache(DataSize.ofMegabytes(1), Duration.ofMinutes(1));
+        AtomicInteger sent = new AtomicInteger();
+        ResponseEntity<byte[]> response = ok("{}".getBytes(StandardCharsets.UTF_8), "\"1\"");
+
+        cache.exchange("key", conditional -> {
+            sent.incrementAndGet();
+            return Mono.just(response);
+        }).block();
+        ResponseEntity<byte[]> second = cache.exchange("key", conditional -> {
+            sent.incrementAndGet();
+            return Mono.just(response);
+        }).block();
+
+        assertThat(sent.get()).isEqualTo(1);
+        assertThat(second).isSameAs(response);
+    }
+
+    /**
+     * Запись есть в кэше, если запрос к серверу уходит с If-None-Match. Сервер отвечает ошибкой,
+     * поэтому проверка сама кэш не меняет.
+     */
+    private static boolean isCached(GatewayResponseCache cache, String key) {
+        AtomicInteger conditional = new AtomicInteger();
+        cache.exchange(key, headers -> {
+            if (!headers.getIfNoneMatch().isEmpty()) conditional.incrementAndGet();
+            return Mono.<ResponseEntity<byte[]>>error(new IllegalStateException("сервер недоступен"));
+        }).onErrorResume(IllegalStateException.class, e -> Mono.empty()).block();
+        return conditional.get() > 0;
+    }
+
+    private static GatewayResponseCache cache(DataSize maxSize, Duration freshFor) {
+        return new GatewayResponseCache(maxSize, freshFor, new SimpleMeterRegistry(), Runnable::run);
+    }
+
+    private static ResponseEntity<byte[]> ok(byte[] body, String etag) {
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    private static MockResponse json(String body, String etag) {
+        return new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader(HttpHeaders.ETAG, etag)
+                .setBody(body);
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private TestClient client(GatewayResponseCache cache) {
+        factory = new GatewayTransportFactory("http://" + server.getHostName() + ":" + server.getPort(),
+                new GatewayClientProperties(), new RestTemplateBuilder(), WebClient.builder(),
+                new SimpleMeterRegistry());
+        return new TestClient(factory.forPath("/items"), cache);
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(GatewayTransport transport, GatewayResponseCache cache) {
+            super(transport, cache);
+        }
+
+        Mono<ResponseEntity<Object>> getItem(long itemId, long userId) {
+            return cachedGet("/" + itemId, userId, null, true);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GatewayTransportTest {
+    private MockWebServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayTransportFactory factory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (factory != null) factory.close();
+        server.shutdown();
+    }
+
+    @ParameterizedTest
+    @EnumSource(GatewayTransportFactory.Mode.class)
+    void exchange_expandsParametersAndSendsHeaders(GatewayTransportFactory.Mode mode) throws InterruptedException {
+        server.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("[]"));
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(BaseClient.USER_ID_HEADER, "1");
+
+        ResponseEntity<byte[]> response = transport(mode, "/items")
+                .exchange(HttpMethod.GET, "/search?text={text}&from={from}&size={size}",
+                        Map.of("text", "дрель & шуруповёрт", "from", 0, "size", 10), headers, null)
+                .block();
+
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getRequestUrl().encodedPath()).isEqualTo("/items/search");
+        assertThat(request.getRequestUrl().queryParameter("text")).isEqualTo("дрель & шуруповёрт");
+        assertThat(request.getRequestUrl().queryParameter("size")).isEqualTo("10");
+        assertThat(request.getHeader(BaseClient.USER_ID_HEADER)).isEqualTo("1");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody()).isEqualTo("[]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @EnumSource(GatewayTransportFactory.Mode.class)
+    void exchange_sendsBodyAsJson(GatewayTransportFactory.Mode mode) throws InterruptedException {
+        server.enqueue(new MockResponse().setResponseCode(201));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        ResponseEntity<byte[]> response = transport(mode, "/users")
+                .exchange(HttpMethod.POST, "", null, headers, Map.of("name", "Пётр"))
+                .block();
+
+        RecordedRequest request = server.takeRequest();
+        assertThat(request.getMethod()).isEqualTo("POST");
+        assertThat(request.getPath()).isEqualTo("/users");
+        assertThat(request.getBody().readUtf8()).isEqualTo("{\"name\":\"Пётр\"}");
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+    }
+
+    @ParameterizedTest
+    @EnumSource(GatewayTransportFactory.Mode.class)
+    void exchange_returnsErrorResponseInsteadOfThrowing(GatewayTransportFactory.Mode mode) {
+        String body = "{\"error\":\"Ошибка при поиске вещи\",\"errorMessage\":\"вещи с id 5 не существует\"}";
+        server.enqueue(new MockResponse()
+                .setResponseCode(404)
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setHeader("X-Request-Id", "abc")
+                .setBody(body));
+
+        ResponseEntity<byte[]> response = transport(mode, "/items")
+                .exchange(HttpMethod.GET, "/5", null, new HttpHeaders(), null)
+                .block();
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getHeaders().getFirst("X-Request-Id")).isEqualTo("abc");
+        assertThat(response.getBody()).isEqualTo(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @ParameterizedTest
+    @EnumSource(GatewayTransportFactory.Mode.class)
+    void exchange_recordsUpstreamTimerWithIdTemplate(GatewayTransportFactory.Mode mode) {
+        server.enqueue(new MockResponse().setBody("{}"));
+        server.enqueue(new MockResponse().setResponseCode(404).setBody("{}"));
+        GatewayTransport transport = transport(mode, "/bookings");
+
+        transport.exchange(HttpMethod.PATCH, "/42?approved=true", null, new HttpHeaders(), null).block();
+        transport.exchange(HttpMethod.GET, "/7", null, new HttpHeaders(), null).block();
+
+        Timer patch = meterRegistry.get("gateway.upstream.requests")
+                .tags("uri", "/bookings/{id}", "method", "PATCH", "status", "200", "outcome", "SUCCESS")
+                .timer();
+        Timer get = meterRegistry.get("gateway.upstream.requests")
+                .tags("uri", "/bookings/{id}", "method", "GET", "status", "404", "outcome", "CLIENT_ERROR")
+                .timer();
+        assertThat(patch.count()).isEqualTo(1);
+        assertThat(get.count()).isEqualTo(1);
+        assertThat(meterRegistry.find("gateway.upstream.requests").tag("uri", "/bookings/42").timer()).isNull();
+    }
+
+    @Test
+    void exchange_recordsEmptyAndCancelledUpstreamCalls() {
+        TimedGatewayTransport empty = new TimedGatewayTransport(respondingWith(Mono.empty()), meterRegistry, "/items");
+        TimedGatewayTransport hanging = new TimedGatewayTransport(respondingWith(Mono.never()), meterRegistry,
+                "/items");
+
+        ResponseEntity<byte[]> response = empty.exchange(HttpMethod.GET, "/1", null, new HttpHeaders(), null).block();
+        hanging.exchange(HttpMethod.GET, "/2", null, new HttpHeaders(), null).subscribe().dispose();
+
+        assertThat(response).isNull();
+        assertThat(meterRegistry.get("gateway.upstream.requests")
+                .tags("uri", "/items/{id}", "status", "EMPTY", "outcome", "UNKNOWN").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("gateway.upstream.requests")
+                .tags("uri", "/items/{id}", "status", "CANCELLED", "outcome", "UNKNOWN").timer().count()).isEqualTo(1);
+    }
+
+    private static GatewayTransport respondingWith(Mono<ResponseEntity<byte[]>> response) {
+        return new GatewayTransport() {
+            @Override
+            public <T> Mono<ResponseEntity<byte[]>> exchange(HttpMethod method, String path,
+                                                             Map<String, Object> parameters,
+                                                             HttpHeaders headers, T body) {
+                return response;
+            }
+        };
+    }
+
+    private GatewayTransport transport(GatewayTransportFactory.Mode mode, String apiPrefix) {
+        GatewayClientProperties properties = new GatewayClientProperties();
+        properties.setMode(mode);
+        factory = new GatewayTransportFactory("http://" + server.getHostName() + ":" + server.getPort(), properties,
+                new RestTemplateBuilder(), WebClient.builder(), meterRegistry);
+        return factory.forPath(apiPrefix);
+    }
+}
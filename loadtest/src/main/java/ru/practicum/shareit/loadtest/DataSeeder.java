@@ -0,0 +1,55 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Заполняет приложение через публичное API, чтобы данные проходили те же проверки, что и в работе.
+ */
+public class DataSeeder {
+    private final ShareItClient client;
+    private final LoadTestProperties properties;
+
+    public DataSeeder(ShareItClient client, LoadTestProperties properties) {
+        this.client = client;
+        this.properties = properties;
+    }
+
+    public Dataset seed() {
+        String run = UUID.randomUUID().toString().substring(0, 8);
+        int users = properties.getUsers();
+        long[] userIds = new long[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = expectCreated(client.createUser("user " + i, "user" + i + "-" + run + "@load.test"));
+        }
+
+        int items = users * properties.getItemsPerUser();
+        long[] itemIds = new long[items];
+        long[] itemOwnerIds = new long[items];
+        for (int i = 0; i < items; i++) {
+            long ownerId = userIds[i % users];
+            String word = Dataset.WORDS.get(i % Dataset.WORDS.size());
+            itemIds[i] = expectCreated(client.createItem(ownerId, word + " " + i,
+                    "хорошая " + word + " в аренду, вещь " + i));
+            itemOwnerIds[i] = ownerId;
+        }
+
+        Dataset dataset = new Dataset(userIds, itemIds, itemOwnerIds);
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        for (int i = 0; i < items; i++) {
+            long bookerId = userIds[(i + 1) % users];
+            for (int j = 0; j < properties.getBookingsPerItem(); j++) {
+                LocalDateTime start = base.plusDays(2L * j);
+                long bookingId = expectCreated(client.createBooking(bookerId, itemIds[i], start, start.plusDays(1)));
+                dataset.addPending(itemOwnerIds[i], bookingId);
+            }
+        }
+        return dataset;
+    }
+
+    private long expectCreated(ShareItClient.Response response) {
+        if (!response.isSuccessful())
+            throw new IllegalStateException("не удалось засеять данные, статус ответа " + response.getStatus());
+        return response.id();
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Засеянные данные: пользователи, их вещи и бронирования, ожидающие подтверждения.
+ */
+public class Dataset {
+    static final List<String> WORDS = List.of("дрель", "отвёртка", "пила", "молоток", "лестница", "палатка",
+            "велосипед", "самокат", "проектор", "гитара", "мяч", "рюкзак");
+    private final long[] userIds;
+    private final long[] itemIds;
+    private final long[] itemOwnerIds;
+    private final Queue<PendingBooking> pending = new ConcurrentLinkedQueue<>();
+
+    public Dataset(long[] userIds, long[] itemIds, long[] itemOwnerIds) {
+        this.userIds = userIds;
+        this.itemIds = itemIds;
+        this.itemOwnerIds = itemOwnerIds;
+    }
+
+    public long[] getUserIds() {
+        return userIds;
+    }
+
+    public long[] getItemIds() {
+        return itemIds;
+    }
+
+    public long ownerOf(int itemIndex) {
+        return itemOwnerIds[itemIndex];
+    }
+
+    public void addPending(long ownerId, long bookingId) {
+        pending.add(new PendingBooking(ownerId, bookingId));
+    }
+
+    public PendingBooking pollPending() {
+        return pending.poll();
+    }
+
+    public static class PendingBooking {
+        private final long ownerId;
+        private final long bookingId;
+
+        PendingBooking(long ownerId, long bookingId) {
+            this.ownerId = ownerId;
+            this.bookingId = bookingId;
+        }
+
+        public long getOwnerId() {
+            return ownerId;
+        }
+
+        public long getBookingId() {
+            return bookingId;
+        }
+    }
+}
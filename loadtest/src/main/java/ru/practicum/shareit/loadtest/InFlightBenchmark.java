@@ -0,0 +1,153 @@
+package ru.practicum.shareit.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сколько одновременных запросов держит один шлюз в режимах gateway.client.mode=blocking и reactive.
+ *
+ * <p>Поднимает заглушку сервера, отвечающую на любой запрос через loadtest.inflight.delay-ms, и для каждого
+ * уровня из loadtest.inflight.levels держит столько запросов к шлюзу в полёте. Шлюз запускается отдельно
+ * с SHAREIT_SERVER_URL=http://localhost:&lt;loadtest.inflight.stub-port&gt;. Пока шлюз успевает,
+ * req/s растёт линейно с уровнем; предел в req/s × задержка и есть число запросов, которые он держит.
+ */
+public class InFlightBenchmark {
+    private static final byte[] STUB_BODY = "{\"id\":1,\"name\":\"stub\",\"email\":\"stub@bench.test\"}"
+            .getBytes(StandardCharsets.UTF_8);
+    private final String baseUrl;
+    private final int delayMillis;
+    private final int seconds;
+    private final int[] levels;
+    private final HttpClient httpClient;
+
+    InFlightBenchmark(String baseUrl, int delayMillis, int seconds, int[] levels) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.delayMillis = delayMillis;
+        this.seconds = seconds;
+        this.levels = levels;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int stubPort = Integer.getInteger("loadtest.inflight.stub-port", 9099);
+        int delayMillis = Integer.getInteger("loadtest.inflight.delay-ms", 200);
+        int[] levels = Arrays.stream(System.getProperty("loadtest.inflight.levels", "50,100,200,400,800").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        HttpServer stub = startStub(stubPort, delayMillis);
+        try {
+            new InFlightBenchmark(System.getProperty("loadtest.url", "http://localhost:8080"), delayMillis,
+                    Integer.getInteger("loadtest.duration", 10), levels).run();
+        } finally {
+            stub.stop(0);
+        }
+        System.exit(0);
+    }
+
+    void run() {
+        System.out.printf("Заглушка сервера отвечает через %d мс, %d с на уровень%n", delayMillis, seconds);
+        System.out.printf("%n%10s %9s %7s %10s %10s %10s %10s%n",
+                "in-flight", "requests", "errors", "req/s", "p50, ms", "p99, ms", "sustained");
+        for (int level : levels) {
+            LatencyRecorder recorder = runLevel(level);
+            double throughput = (double) recorder.getCount() / seconds;
+            System.out.printf("%10d %9d %7d %10.1f %10.2f %10.2f %10.0f%n", level, recorder.getCount(),
+                    recorder.getFailures() + recorder.getClientErrors(), throughput,
+                    recorder.percentileMillis(50), recorder.percentileMillis(99), throughput * delayMillis / 1000);
+        }
+    }
+
+    /**
+     * Держит level цепочек запросов: каждая отправляет следующий запрос сразу после ответа на предыдущий.
+     * Цепочка пишет в свой LatencyRecorder последовательно, поэтому синхронизация не нужна.
+     */
+    private LatencyRecorder runLevel(int level) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/users/1"))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+        List<LatencyRecorder> recorders = new ArrayList<>();
+        List<CompletableFuture<Void>> chains = new ArrayList<>();
+        for (int i = 0; i < level; i++) {
+            LatencyRecorder recorder = new LatencyRecorder();
+            recorders.add(recorder);
+            chains.add(chain(request, recorder, deadline));
+        }
+        CompletableFuture.allOf(chains.toArray(new CompletableFuture[0])).join();
+        LatencyRecorder merged = new LatencyRecorder();
+        recorders.forEach(merged::merge);
+        return merged;
+    }
+
+    private CompletableFuture<Void> chain(HttpRequest request, LatencyRecorder recorder, long deadline) {
+        if (System.nanoTime() >= deadline) return CompletableFuture.completedFuture(null);
+        long started = System.nanoTime();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    recorder.record(System.nanoTime() - started, error == null ? response.statusCode() : 0);
+                    return null;
+                })
+                .thenCompose(ignored -> chain(request, recorder, deadline));
+    }
+
+    /**
+     * Заглушка отвечает из пула без ограничения размера, поэтому не становится узким местом на высоких уровнях.
+     */
+    private static HttpServer startStub(int port, int delayMillis) throws IOException {
+        // заголовки и тело уходят отдельными пакетами, без TCP_NODELAY Nagle добавляет ~40 мс к каждому ответу
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.createContext("/", exchange -> {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange);
+        });
+        server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "inflight-stub");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return server;
+    }
+
+    private static void respond(HttpExchange exchange) {
+        try {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, STUB_BODY.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(STUB_BODY);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            exchange.close();
+        }
+    }
+}
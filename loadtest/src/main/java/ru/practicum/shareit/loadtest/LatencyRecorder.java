@@ -0,0 +1,51 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Задержки одной операции в одном потоке; потоки пишут без синхронизации, результаты сливаются в конце.
+ */
+public class LatencyRecorder {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int clientErrors;
+    private int failures;
+
+    public void record(long nanos, int status) {
+        if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+        latencies[count++] = nanos;
+        if (status >= 400 && status < 500) clientErrors++;
+        else if (status == 0 || status >= 500) failures++;
+    }
+
+    public void merge(LatencyRecorder other) {
+        if (count + other.count > latencies.length)
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        clientErrors += other.clientErrors;
+        failures += other.failures;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getClientErrors() {
+        return clientErrors;
+    }
+
+    public int getFailures() {
+        return failures;
+    }
+
+    /**
+     * Перцентиль по ближайшему рангу, в миллисекундах. Сортирует накопленные значения.
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) return 0;
+        Arrays.sort(latencies, 0, count);
+        int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+        return latencies[Math.max(rank, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.loadtest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Нагрузочный прогон через шлюз: засев данных, прогрев и замер взвешенного сценария
+ * с отчётом p50/p99 и пропускной способности по каждому эндпоинту.
+ * С -Dloadtest.server-metrics-url=http://localhost:9090 в отчёт добавляются потоки и память сервера,
+ * что позволяет сравнить прогоны с shareit.threads.mode=platform и virtual.
+ */
+public class LoadTestApp {
+    private static final int PAGE_SIZE = 20;
+    private final LoadTestProperties properties;
+    private final ShareItClient client;
+    private final Operation[] table;
+    private Dataset dataset;
+
+    LoadTestApp(LoadTestProperties properties) {
+        this.properties = properties;
+        this.client = new ShareItClient(properties.getBaseUrl());
+        this.table = weightTable(properties.getWeights());
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        new LoadTestApp(LoadTestProperties.fromSystemProperties()).run();
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("Засев: %d пользователей, %d вещей на пользователя, %d бронирований на вещь%n",
+                properties.getUsers(), properties.getItemsPerUser(), properties.getBookingsPerItem());
+        dataset = new DataSeeder(client, properties).seed();
+        if (properties.getWarmupSeconds() > 0) {
+            System.out.printf("Прогрев: %d с%n", properties.getWarmupSeconds());
+            execute(properties.getWarmupSeconds());
+        }
+        System.out.printf("Замер: %d с, %d потоков%n", properties.getDurationSeconds(), properties.getThreads());
+        ServerMetricsSampler sampler = null;
+        if (properties.getServerMetricsUrl() != null) {
+            sampler = new ServerMetricsSampler(properties.getServerMetricsUrl(),
+                    Long.getLong("loadtest.server-metrics.interval-ms", 500));
+            sampler.start();
+        }
+        Map<Operation, LatencyRecorder> results = execute(properties.getDurationSeconds());
+        if (sampler != null) sampler.stop();
+        print(results, properties.getDurationSeconds());
+        if (sampler != null) sampler.print();
+        System.exit(0);
+    }
+
+    private Map<Operation, LatencyRecorder> execute(int seconds) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Map<Operation, LatencyRecorder>> perThread = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(properties.getThreads());
+        for (int i = 0; i < properties.getThreads(); i++) {
+            Map<Operation, LatencyRecorder> recorders = newRecorders();
+            perThread.add(recorders);
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = table[ThreadLocalRandom.current().nextInt(table.length)];
+                        long started = System.nanoTime();
+                        int status = perform(operation);
+                        recorders.get(operation).record(System.nanoTime() - started, status);
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }, "loadtest-" + i);
+            worker.start();
+        }
+        done.await();
+        Map<Operation, LatencyRecorder> merged = newRecorders();
+        for (Map<Operation, LatencyRecorder> recorders : perThread) {
+            recorders.forEach((operation, recorder) -> merged.get(operation).merge(recorder));
+        }
+        return merged;
+    }
+
+    private int perform(Operation operation) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] users = dataset.getUserIds();
+        long userId = users[random.nextInt(users.length)];
+        switch (operation) {
+            case SEARCH:
+                return client.search(userId, Dataset.WORDS.get(random.nextInt(Dataset.WORDS.size())), PAGE_SIZE)
+                        .getStatus();
+            case CREATE_BOOKING:
+                return createBooking(random);
+            case APPROVE_BOOKING:
+                Dataset.PendingBooking pending = dataset.pollPending();
+                if (pending == null) return createBooking(random);
+                return client.approveBooking(pending.getOwnerId(), pending.getBookingId()).getStatus();
+            case OWNER_ITEMS:
+                return client.ownerItems(userId, PAGE_SIZE).getStatus();
+            case OWNER_BOOKINGS:
+                return client.ownerBookings(userId, PAGE_SIZE).getStatus();
+            default:
+                throw new IllegalArgumentException("неизвестная операция " + operation);
+        }
+    }
+
+    private int createBooking(ThreadLocalRandom random) {
+        int itemIndex = random.nextInt(dataset.getItemIds().length);
+        long ownerId = dataset.ownerOf(itemIndex);
+        long[] users = dataset.getUserIds();
+        // вещь i принадлежит пользователю i % users, поэтому сдвиг в [1, users) никогда не попадает на владельца
+        long bookerId = users[(itemIndex + 1 + random.nextInt(users.length - 1)) % users.length];
+        LocalDateTime start = LocalDateTime.now().plusDays(30).plusHours(random.nextInt(24 * 365)).withNano(0);
+        ShareItClient.Response response = client.createBooking(bookerId, dataset.getItemIds()[itemIndex], start,
+                start.plusHours(1 + random.nextInt(72)));
+        if (response.isSuccessful()) dataset.addPending(ownerId, response.id());
+        return response.getStatus();
+    }
+
+    private static Operation[] weightTable(Map<Operation, Integer> weights) {
+        List<Operation> table = new ArrayList<>();
+        weights.forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) table.add(operation);
+        });
+        return table.toArray(new Operation[0]);
+    }
+
+    private static Map<Operation, LatencyRecorder> newRecorders() {
+        Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) recorders.put(operation, new LatencyRecorder());
+        return recorders;
+    }
+
+    private static void print(Map<Operation, LatencyRecorder> results, int seconds) {
+        System.out.printf("%n%-22s %9s %7s %7s %10s %10s %10s%n",
+                "endpoint", "requests", "4xx", "errors", "req/s", "p50, ms", "p99, ms");
+        LatencyRecorder total = new LatencyRecorder();
+        for (Map.Entry<Operation, LatencyRecorder> entry : results.entrySet()) {
+            printRow(entry.getKey().getEndpoint(), entry.getValue(), seconds);
+            total.merge(entry.getValue());
+        }
+        printRow("total", total, seconds);
+    }
+
+    private static void printRow(String name, LatencyRecorder recorder, int seconds) {
+        System.out.printf("%-22s %9d %7d %7d %10.1f %10.2f %10.2f%n", name, recorder.getCount(),
+                recorder.getClientErrors(), recorder.getFailures(), (double) recorder.getCount() / seconds,
+                recorder.percentileMillis(50), recorder.percentileMillis(99));
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.loadtest;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона, читаются из системных свойств (-Dloadtest.*).
+ */
+public class LoadTestProperties {
+    private final String baseUrl;
+    private final int users;
+    private final int itemsPerUser;
+    private final int bookingsPerItem;
+    private final int threads;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final Map<Operation, Integer> weights;
+    private final String serverMetricsUrl;
+
+    private LoadTestProperties(String baseUrl, int users, int itemsPerUser, int bookingsPerItem, int threads,
+                               int warmupSeconds, int durationSeconds, Map<Operation, Integer> weights,
+                               String serverMetricsUrl) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.itemsPerUser = itemsPerUser;
+        this.bookingsPerItem = bookingsPerItem;
+        this.threads = threads;
+        this.warmupSeconds = warmupSeconds;
+        this.durationSeconds = durationSeconds;
+        this.weights = weights;
+        this.serverMetricsUrl = serverMetricsUrl;
+    }
+
+    public static LoadTestProperties fromSystemProperties() {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            int weight = intProperty("loadtest.weight." + operation.getKey(), operation.getDefaultWeight());
+            if (weight < 0) throw new IllegalArgumentException("вес операции " + operation.getKey() + " меньше нуля");
+            weights.put(operation, weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0)
+            throw new IllegalArgumentException("в сценарии нет ни одной операции");
+        int users = positive("loadtest.users", 50);
+        if (users < 2) throw new IllegalArgumentException("для бронирований нужно минимум два пользователя");
+        return new LoadTestProperties(
+                System.getProperty("loadtest.url", "http://localhost:8080"),
+                users,
+                positive("loadtest.items-per-user", 10),
+                intProperty("loadtest.bookings-per-item", 5),
+                positive("loadtest.threads", 16),
+                intProperty("loadtest.warmup", 10),
+                positive("loadtest.duration", 60),
+                weights,
+                System.getProperty("loadtest.server-metrics-url"));
+    }
+
+    private static int positive(String name, int defaultValue) {
+        int value = intProperty(name, defaultValue);
+        if (value <= 0) throw new IllegalArgumentException(name + " должно быть больше нуля");
+        return value;
+    }
+
+    private static int intProperty(String name, int defaultValue) {
+        String value = System.getProperty(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+
+    public int getUsers() {
+        return users;
+    }
+
+    public int getItemsPerUser() {
+        return itemsPerUser;
+    }
+
+    public int getBookingsPerItem() {
+        return bookingsPerItem;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public int getWarmupSeconds() {
+        return warmupSeconds;
+    }
+
+    public int getDurationSeconds() {
+        return durationSeconds;
+    }
+
+    public Map<Operation, Integer> getWeights() {
+        return weights;
+    }
+
+    /**
+     * Адрес сервера (не шлюза) для снятия метрик потоков и памяти, null — не снимать.
+     */
+    public String getServerMetricsUrl() {
+        return serverMetricsUrl;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.loadtest;
+
+/**
+ * Операции сценария нагрузки; вес задаётся свойством loadtest.weight.&lt;key&gt;.
+ */
+public enum Operation {
+    SEARCH("search", 40, "GET /items/search"),
+    CREATE_BOOKING("create", 20, "POST /bookings"),
+    APPROVE_BOOKING("approve", 10, "PATCH /bookings/{id}"),
+    OWNER_ITEMS("owner-items", 15, "GET /items"),
+    OWNER_BOOKINGS("owner-bookings", 15, "GET /bookings/owner");
+
+    private final String key;
+    private final int defaultWeight;
+    private final String endpoint;
+
+    Operation(String key, int defaultWeight, String endpoint) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+        this.endpoint = endpoint;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+}
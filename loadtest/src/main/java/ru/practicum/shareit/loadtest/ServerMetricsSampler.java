@@ -0,0 +1,98 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Раз в loadtest.server-metrics.interval-ms снимает с /actuator/metrics сервера число живых потоков
+ * и занятую память и запоминает максимумы за замер. По ним сравниваются shareit.threads.mode=platform
+ * и virtual: виртуальные потоки в jvm.threads.live не входят, там видны только несущие потоки и служебные.
+ */
+public class ServerMetricsSampler {
+    private final String metricsUrl;
+    private final long intervalMillis;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(2))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile boolean running;
+    private Thread sampler;
+    private double maxThreads;
+    private double maxHeapUsed;
+    private double maxCommitted;
+    private int samples;
+
+    ServerMetricsSampler(String serverUrl, long intervalMillis) {
+        String base = serverUrl.endsWith("/") ? serverUrl.substring(0, serverUrl.length() - 1) : serverUrl;
+        this.metricsUrl = base + "/actuator/metrics/";
+        this.intervalMillis = intervalMillis;
+    }
+
+    void start() {
+        running = true;
+        sampler = new Thread(() -> {
+            while (running) {
+                sample();
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "loadtest-metrics");
+        sampler.setDaemon(true);
+        sampler.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        sampler.interrupt();
+        sampler.join();
+    }
+
+    void print() {
+        if (samples == 0) {
+            System.out.printf("%nМетрики сервера недоступны по %s%n", metricsUrl);
+            return;
+        }
+        System.out.printf("%nСервер за замер (%d снимков): потоков до %.0f, heap до %.1f МБ, committed до %.1f МБ%n",
+                samples, maxThreads, maxHeapUsed / (1 << 20), maxCommitted / (1 << 20));
+    }
+
+    private void sample() {
+        try {
+            double threads = value("jvm.threads.live");
+            double heapUsed = value("jvm.memory.used?tag=area:heap");
+            double committed = value("jvm.memory.committed");
+            maxThreads = Math.max(maxThreads, threads);
+            maxHeapUsed = Math.max(maxHeapUsed, heapUsed);
+            maxCommitted = Math.max(maxCommitted, committed);
+            samples++;
+        } catch (IOException e) {
+            // снимок пропускается, замер нагрузки от этого не зависит
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private double value(String metric) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(URI.create(metricsUrl + metric))
+                .timeout(Duration.ofSeconds(2))
+                .GET()
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) throw new IOException(metric + ": HTTP " + response.statusCode());
+        JsonNode measurements = objectMapper.readTree(response.body()).path("measurements");
+        for (JsonNode measurement : measurements) {
+            if ("VALUE".equals(measurement.path("statistic").asText())) return measurement.path("value").asDouble();
+        }
+        throw new IOException(metric + ": нет значения VALUE");
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Тонкий HTTP-клиент к API шлюза, повторяющий запросы фронтенда.
+ */
+public class ShareItClient {
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public ShareItClient(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public Response createUser(String name, String email) {
+        return send(null, "POST", "/users", Map.of("name", name, "email", email));
+    }
+
+    public Response createItem(long ownerId, String name, String description) {
+        return send(ownerId, "POST", "/items", Map.of("name", name, "description", description, "available", true));
+    }
+
+    public Response createBooking(long bookerId, long itemId, LocalDateTime start, LocalDateTime end) {
+        return send(bookerId, "POST", "/bookings",
+                Map.of("itemId", itemId, "start", start.toString(), "end", end.toString()));
+    }
+
+    public Response approveBooking(long ownerId, long bookingId) {
+        return send(ownerId, "PATCH", "/bookings/" + bookingId + "?approved=true", null);
+    }
+
+    public Response search(long userId, String text, int size) {
+        return send(userId, "GET", "/items/search?text=" + URLEncoder.encode(text, StandardCharsets.UTF_8)
+                + "&from=0&size=" + size, null);
+    }
+
+    public Response ownerItems(long ownerId, int size) {
+        return send(ownerId, "GET", "/items?from=0&size=" + size, null);
+    }
+
+    public Response ownerBookings(long ownerId, int size) {
+        return send(ownerId, "GET", "/bookings/owner?state=ALL&from=0&size=" + size, null);
+    }
+
+    private Response send(Long userId, String method, String path, Object body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept", "application/json");
+        if (userId != null) builder.header(USER_ID_HEADER, String.valueOf(userId));
+        if (body == null) {
+            builder.method(method, HttpRequest.BodyPublishers.noBody());
+        } else {
+            builder.header("Content-Type", "application/json");
+            try {
+                builder.method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        try {
+            HttpResponse<byte[]> response = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+            return new Response(response.statusCode(), response.body());
+        } catch (IOException e) {
+            return new Response(0, new byte[0]);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, new byte[0]);
+        }
+    }
+
+    public class Response {
+        private final int status;
+        private final byte[] body;
+
+        Response(int status, byte[] body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public boolean isSuccessful() {
+            return status >= 200 && status < 300;
+        }
+
+        public long id() {
+            try {
+                JsonNode node = objectMapper.readTree(body);
+                return node.get("id").asLong();
+            } catch (IOException | NullPointerException e) {
+                throw new IllegalStateException("в ответе со статусом " + status + " нет id", e);
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,10 +12,20 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingBatchEntry;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.DomainError;
+import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.PageCursor;
+
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.mapper.MapperUtil.USER_ID_HEADER;
 
@@ -32,6 +43,13 @@ public class BookingController {
         return bookingService.createBooking(userId, bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestHeader(USER_ID_HEADER) long userId,
+                                                      @RequestBody List<BookingCreationDto> bookings) {
+        log.info("Post-запрос: пакетное бронирование {} вещей пользователем {}.", bookings.size(), userId);
+        return MapperUtil.convertList(bookingService.createBookings(userId, bookings), this::toBatchResult);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto confirmationBooking(@RequestHeader(USER_ID_HEADER) long ownerId,
                                           @PathVariable long bookingId,
@@ -41,28 +59,64 @@ public class BookingController {
         return bookingService.confirmationBooking(ownerId, bookingId, approved);
     }
 
+    @PatchMapping
+    public List<BookingBatchResultDto> confirmationBookings(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                            @RequestBody List<BookingDecisionDto> decisions) {
+        log.info("Patch-запрос: пакетное подтверждение {} бронирований пользователем {}.", decisions.size(), ownerId);
+        return MapperUtil.convertList(bookingService.confirmationBookings(ownerId, decisions), this::toBatchResult);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@RequestHeader(USER_ID_HEADER) long userId,
-                                     @PathVariable long bookingId) {
+                                     @PathVariable long bookingId,
+                                     WebRequest request) {
         log.info("Get-запрос: запрос на получение бронирования {} пользователем {}.", bookingId, userId);
+        Optional<String> etag = bookingService.getBookingVersionTag(userId, bookingId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) return null;
         return bookingService.getBookingById(userId, bookingId);
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByUserId(@RequestHeader(USER_ID_HEADER) long userId,
-                                                   @RequestParam String state,
-                                                   @RequestParam int from,
-                                                   @RequestParam int size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByUserId(@RequestHeader(USER_ID_HEADER) long userId,
+                                                                   @RequestParam String state,
+                                                                   @RequestParam(required = false) Integer from,
+                                                                   @RequestParam int size,
+                                                                   @RequestParam(required = false) String cursor) {
         log.info("Get-запрос: запрос на получение всех бронирований со статусом {} пользователя {}.", state, userId);
-        return bookingService.getAllBookingsByUserId(userId, state, from, size);
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllBookingsByUserId(userId, state, PageCursor.requireFrom(from), size)
+                : bookingService.getAllBookingsByUserId(userId, state, cursor, size);
+        return withNextCursor(bookings, state, size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsByOwnerId(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                                    @RequestParam String state,
-                                                    @RequestParam int from,
-                                                    @RequestParam int size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByOwnerId(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                                    @RequestParam String state,
+                                                                    @RequestParam(required = false) Integer from,
+                                                                    @RequestParam int size,
+                                                                    @RequestParam(required = false) String cursor) {
         log.info("Get-запрос: запрос на получение всех бронирований со статусом {} владельца {}.", state, ownerId);
-        return bookingService.getAllBookingsByOwnerId(ownerId, state, from, size);
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllBookingsByOwnerId(ownerId, state, PageCursor.requireFrom(from), size)
+                : bookingService.getAllBookingsByOwnerId(ownerId, state, cursor, size);
+        return withNextCursor(bookings, state, size);
+    }
+
+    private BookingBatchResultDto toBatchResult(BookingBatchEntry entry) {
+        if (entry.getFailure() == null) {
+            return BookingBatchResultDto.builder().status(200).booking(entry.getBooking()).build();
+        }
+        RuntimeException failure = entry.getFailure();
+        DomainError error = DomainError.of(failure).orElseThrow(() -> failure);
+        return BookingBatchResultDto.builder()
+                .status(error.getStatus().value())
+                .error(error.getError())
+                .errorMessage(error.messageFor(failure))
+                .build();
+    }
+
+    private ResponseEntity<List<BookingDto>> withNextCursor(List<BookingDto> bookings, String state, int size) {
+        if (!State.ALL.name().equals(state)) return ResponseEntity.ok(bookings);
+        return PageCursor.withNextCursor(bookings, size, b -> PageCursor.of(b.getStart(), b.getId()));
     }
 }
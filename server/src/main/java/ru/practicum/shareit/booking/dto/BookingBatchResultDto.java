@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Ответ на один элемент POST /bookings/batch: статус и тело, которые вернул бы одиночный POST /bookings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingBatchResultDto {
+    private int status;
+    private BookingDto booking;
+    private String error;
+    private String errorMessage;
+}
@@ -0,0 +1,52 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Строка витрины бронирований владельца: копия полей BookingDto, чтобы список владельца читался
+ * одним диапазоном индекса без join'ов с items и users. Поддерживается сервисами при создании,
+ * подтверждении бронирования и при изменении вещи или пользователя.
+ */
+@Entity
+@Table(name = "owner_bookings", schema = "public")
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OwnerBooking {
+    @Id
+    @Column(name = "booking_id")
+    private Long bookingId;
+    @Column(name = "owner_id")
+    private Long ownerId;
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "item_name")
+    private String itemName;
+    @Column(name = "item_description")
+    private String itemDescription;
+    @Column(name = "booker_id")
+    private Long bookerId;
+    @Column(name = "booker_email")
+    private String bookerEmail;
+    @Column(name = "booker_name")
+    private String bookerName;
+    @Column(name = "time_from")
+    private LocalDateTime start;
+    @Column(name = "time_to")
+    private LocalDateTime end;
+    @Column(name = "current_state")
+    @Enumerated(EnumType.STRING)
+    private State state;
+}
@@ -1,13 +1,16 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -15,30 +18,60 @@ import java.util.Set;
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.user.id = ?1")
     List<Booking> findByUserId(long userId, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b " +
+            "where b.user.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findByUserIdAfterCursor(long userId, LocalDateTime start, long id, Pageable pageable);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.user.id = ?1 and b.start > ?2")
     List<Booking> findBookingsByUserIdAndStartAfter(long userId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.user.id = ?1 and b.end < ?2")
     List<Booking> findByUserIdAndEndBefore(long userId, LocalDateTime now, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.user.id = ?1 and b.start < ?2 and b.end > ?3 order by b.start asc")
     List<Booking> findByUserIdAndStartBeforeAndEndAfterOrderByStartAsc(
             long userId, LocalDateTime now, LocalDateTime now2, Pageable pageable);
 
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.user.id = ?1 and b.state = ?2")
     List<Booking> findByUserIdAndState(long userId, State state, Pageable pageable);
 
-    List<Booking> findByItemOwnerId(long userId, Pageable pageable);
-
-    List<Booking> findBookingsByItemOwnerIdAndStartAfter(
-            long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndEndBefore(long userId, LocalDateTime now, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(
-            long userId, LocalDateTime now, LocalDateTime now2, Pageable pageable);
-
-    List<Booking> findByItemOwnerIdAndState(long userId, State state, Pageable pageable);
-
-    List<Booking> findByItemId(long itemId);
+    @Override
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    Optional<Booking> findById(Long bookingId);
+
+    /**
+     * Переводит бронирование из WAITING в state, только если оно принадлежит вещи ownerId.
+     * Строку блокирует сам UPDATE, поэтому из двух одновременных подтверждений пройдёт одно.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.state = ?3, b.version = b.version + 1 " +
+            "where b.id = ?1 and b.itemOwnerId = ?2 and b.state = ru.practicum.shareit.booking.model.State.WAITING")
+    int updateStateIfWaiting(long bookingId, long ownerId, State state);
+
+    @EntityGraph(Booking.WITH_ITEM_AND_BOOKER)
+    @Query("select b from Booking b where b.id in ?1")
+    List<Booking> findByIdIn(Collection<Long> bookingIds);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b " +
+            "where b.item.id = ?1 and b.state <> ?2 and b.start < ?3 and b.end > ?4")
+    boolean existsByItemIdAndStateNotAndStartBeforeAndEndAfter(
+            long itemId, State state, LocalDateTime end, LocalDateTime start);
+
+    @Query("select b from Booking b " +
+            "where b.item.id = ?1 and b.state <> ?2 and b.start < ?3 and b.end > ?4")
+    List<Booking> findByItemIdAndStateNotAndStartBeforeAndEndAfter(
+            long itemId, State state, LocalDateTime end, LocalDateTime start);
 
     @Query(value = "select * from bookings as b " +
             "where item_id = ?1 " +
@@ -56,21 +89,31 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "limit 1", nativeQuery = true)
     Optional<Booking> findByItemIdAndNextBooking(long itemId);
 
-    @Query(value = "select * from bookings as b " +
+    @Query(value = "select lb.* from " +
+            "(select b.*, row_number() over (partition by b.item_id order by b.time_from desc, b.id desc) as rn " +
+            "from bookings as b " +
             "where b.item_id in ?1 " +
-            "and b.time_from in " +
-            "(select bm.max_time from (select lb.item_id as item, MAX(lb.time_from) as max_time " +
-            "from (select * from bookings where time_from <= now() and current_state = 'APPROVED') as lb " +
-            "group by lb.item_id) as bm);", nativeQuery = true)
+            "and b.time_from <= now() " +
+            "and b.current_state = 'APPROVED') as lb " +
+            "where lb.rn = 1", nativeQuery = true)
     List<Booking> findAllByItemIdAndLastBooking(Set<Long> itemId);
 
-    @Query(value = "select * from bookings as b " +
+    @Query(value = "select nb.* from " +
+            "(select b.*, row_number() over (partition by b.item_id order by b.time_from asc, b.id asc) as rn " +
+            "from bookings as b " +
             "where b.item_id in ?1 " +
-            "and b.time_from in " +
-            "(select bm.max_time from (select lb.item_id as item, MIN(lb.time_from) as max_time " +
-            "from (select * from bookings where time_from > now() and current_state = 'APPROVED') as lb " +
-            "group by lb.item_id) as bm);", nativeQuery = true)
+            "and b.time_from > now() " +
+            "and b.current_state = 'APPROVED') as nb " +
+            "where nb.rn = 1", nativeQuery = true)
     List<Booking> findAllByItemIdAndNextBooking(Set<Long> itemId);
 
     boolean existsByUserIdAndItemIdAndEndBefore(long userId, long itemId, LocalDateTime now);
+
+    /**
+     * Версии бронирования, вещи и арендатора, если пользователь — арендатор или владелец вещи.
+     */
+    @Query("select concat(str(b.version), '.', str(i.version), '.', str(u.version)) " +
+            "from Booking b join b.item i join b.user u " +
+            "where b.id = ?1 and (u.id = ?2 or i.owner.id = ?2)")
+    Optional<String> findVersionTagByIdAndParticipant(long bookingId, long userId);
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.OwnerBooking;
+import ru.practicum.shareit.booking.model.State;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OwnerBookingRepository extends JpaRepository<OwnerBooking, Long> {
+
+    List<OwnerBooking> findByOwnerId(long ownerId, Pageable pageable);
+
+    @Query("select o from OwnerBooking o " +
+            "where o.ownerId = ?1 " +
+            "and (o.start < ?2 or (o.start = ?2 and o.bookingId < ?3)) " +
+            "order by o.start desc, o.bookingId desc")
+    List<OwnerBooking> findByOwnerIdAfterCursor(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    List<OwnerBooking> findByOwnerIdAndStartAfter(long ownerId, LocalDateTime now, Pageable pageable);
+
+    List<OwnerBooking> findByOwnerIdAndEndBefore(long ownerId, LocalDateTime now, Pageable pageable);
+
+    List<OwnerBooking> findByOwnerIdAndStartBeforeAndEndAfter(
+            long ownerId, LocalDateTime now, LocalDateTime now2, Pageable pageable);
+
+    List<OwnerBooking> findByOwnerIdAndState(long ownerId, State state, Pageable pageable);
+
+    @Modifying
+    @Query(value = "insert into owner_bookings (booking_id, owner_id, item_id, item_name, item_description, " +
+            "booker_id, booker_email, booker_name, time_from, time_to, current_state) " +
+            "select b.id, b.items_owner_id, i.id, i.name, i.description, u.id, u.email, u.name, " +
+            "b.time_from, b.time_to, b.current_state " +
+            "from bookings as b " +
+            "join items as i on i.id = b.item_id " +
+            "join users as u on u.id = b.user_id " +
+            "where b.id in ?1", nativeQuery = true)
+    int insertFromBookings(Collection<Long> bookingIds);
+
+    @Modifying
+    @Query("update OwnerBooking o set o.state = ?2 where o.bookingId = ?1")
+    int updateState(long bookingId, State state);
+
+    @Modifying
+    @Query("update OwnerBooking o set o.state = ?2 where o.bookingId in ?1")
+    int updateStates(Collection<Long> bookingIds, State state);
+
+    @Modifying
+    @Query("update OwnerBooking o set o.itemName = ?2, o.itemDescription = ?3 where o.itemId = ?1")
+    int updateItemDetails(long itemId, String name, String description);
+
+    @Modifying
+    @Query("update OwnerBooking o set o.bookerEmail = ?2, o.bookerName = ?3 where o.bookerId = ?1")
+    int updateBookerDetails(long bookerId, String email, String name);
+
+    @Modifying
+    @Query("delete from OwnerBooking o where o.bookingId in ?1")
+    int deleteByBookingIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Бронирования, для которых строка витрины отсутствует или расходится с исходными таблицами.
+     * Тип id зависит от диалекта (Long в H2, BigInteger в PostgreSQL), поэтому возвращается Number.
+     */
+    @Query(value = "select b.id " +
+            "from bookings as b " +
+            "join items as i on i.id = b.item_id " +
+            "join users as u on u.id = b.user_id " +
+            "left join owner_bookings as o on o.booking_id = b.id " +
+            "where b.items_owner_id is not null and (o.booking_id is null " +
+            "or o.owner_id <> b.items_owner_id " +
+            "or o.item_id <> i.id " +
+            "or o.item_name <> i.name " +
+            "or o.item_description is distinct from i.description " +
+            "or o.booker_id <> u.id " +
+            "or o.booker_email <> u.email " +
+            "or o.booker_name <> u.name " +
+            "or o.time_from <> b.time_from " +
+            "or o.time_to <> b.time_to " +
+            "or o.current_state <> b.current_state) " +
+            "order by b.id", nativeQuery = true)
+    List<Number> findOutOfSyncBookingIds();
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+/**
+ * Итог одного элемента пакетного бронирования: созданное бронирование или причина отказа.
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BookingBatchEntry {
+    private final BookingDto booking;
+    private final RuntimeException failure;
+
+    public static BookingBatchEntry created(BookingDto booking) {
+        return new BookingBatchEntry(booking, null);
+    }
+
+    public static BookingBatchEntry rejected(RuntimeException failure) {
+        return new BookingBatchEntry(null, failure);
+    }
+}
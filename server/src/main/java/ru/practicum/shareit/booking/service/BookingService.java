@@ -1,18 +1,38 @@
 package ru.practicum.shareit.booking.service;
 
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingService {
     BookingDto createBooking(long userId, BookingCreationDto bookingDto);
 
+    /**
+     * Создаёт бронирования пакетом. Элементы проверяются по тем же правилам, что и в createBooking,
+     * отказ по одному элементу не мешает остальным; итоги возвращаются в порядке элементов.
+     */
+    List<BookingBatchEntry> createBookings(long userId, List<BookingCreationDto> bookings);
+
     BookingDto confirmationBooking(long ownerId, long bookingId, Boolean approved);
 
+    /**
+     * Подтверждает или отклоняет бронирования пакетом по тем же правилам, что и confirmationBooking;
+     * итоги возвращаются в порядке решений.
+     */
+    List<BookingBatchEntry> confirmationBookings(long ownerId, List<BookingDecisionDto> decisions);
+
     BookingDto getBookingById(long userId, long bookingId);
 
+    Optional<String> getBookingVersionTag(long userId, long bookingId);
+
     List<BookingDto> getAllBookingsByUserId(long userId, String state, int from, int size);
 
+    List<BookingDto> getAllBookingsByUserId(long userId, String state, String cursor, int size);
+
     List<BookingDto> getAllBookingsByOwnerId(long ownerId, String state, int from, int size);
+
+    List<BookingDto> getAllBookingsByOwnerId(long ownerId, String state, String cursor, int size);
 }
@@ -7,72 +7,215 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.OwnerBooking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
 import ru.practicum.shareit.exceptions.AvailableStatusException;
+import ru.practicum.shareit.exceptions.BookingDateException;
 import ru.practicum.shareit.exceptions.BookingNotFoundException;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.exceptions.PaginationException;
 import ru.practicum.shareit.exceptions.ParamValidationException;
 import ru.practicum.shareit.exceptions.UnknownBookingStateException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class BookingServiceImpl implements BookingService {
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "id");
+    private static final Sort OWNER_NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "start", "bookingId");
     private final BookingRepository bookingRepository;
+    private final OwnerBookingRepository ownerBookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
 
     @Override
     public BookingDto createBooking(long userId, BookingCreationDto bookingDto) {
-        findTimeIntersections(bookingDto.getItemId(), bookingDto.getStart(), bookingDto.getEnd());
         Optional<User> userOpt = userRepository.findById(userId);
         if (userOpt.isEmpty()) throw new UserNotFoundException("пользователя с id " + userId + " не существует");
-        Optional<Item> itemOpt = itemRepository.findById(bookingDto.getItemId());
+        Optional<Item> itemOpt = itemRepository.findLockedById(bookingDto.getItemId());
         if (itemOpt.isEmpty())
             throw new ItemNotFoundException("вещи с id " + bookingDto.getItemId() + " не существует");
         if (userId == itemOpt.get().getOwner().getId()) {
             throw new ItemNotFoundException("владелец вещи не может её забронировать");
         }
         if (itemOpt.get().getAvailable()) {
+            findTimeIntersections(bookingDto.getItemId(), bookingDto.getStart(), bookingDto.getEnd());
             Booking newBooking = bookingRepository
                     .save(MapperUtil.convertFromBookingCreationDto(bookingDto, itemOpt.get(), userOpt.get()));
+            ownerBookingRepository.insertFromBookings(List.of(newBooking.getId()));
             return MapperUtil.convertToBookingDto(newBooking);
         } else {
             throw new AvailableStatusException("попытка арендовать вещь, недоступную для аренды.");
         }
     }
 
+    @Override
+    public List<BookingBatchEntry> createBookings(long userId, List<BookingCreationDto> bookings) {
+        User booker = userRepository.findById(userId).orElseThrow(() ->
+                new UserNotFoundException("пользователя с id " + userId + " не существует"));
+        Set<Long> itemIds = bookings.stream()
+                .map(BookingCreationDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemIds.isEmpty()
+                ? Collections.<Long, Item>emptyMap()
+                : itemRepository.findLockedByIdIn(itemIds).stream()
+                        .collect(Collectors.toMap(Item::getId, Function.identity()));
+        BookingBatchEntry[] results = new BookingBatchEntry[bookings.size()];
+        Map<Long, List<Integer>> entriesByItem = new LinkedHashMap<>();
+        for (int i = 0; i < bookings.size(); i++) {
+            BookingCreationDto bookingDto = bookings.get(i);
+            RuntimeException failure = checkBatchEntry(userId, bookingDto, items.get(bookingDto.getItemId()));
+            if (failure != null) {
+                results[i] = BookingBatchEntry.rejected(failure);
+            } else {
+                entriesByItem.computeIfAbsent(bookingDto.getItemId(), id -> new ArrayList<>()).add(i);
+            }
+        }
+        List<Booking> accepted = new ArrayList<>();
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        entriesByItem.forEach((itemId, indexes) -> {
+            LocalDateTime from = indexes.stream().map(i -> bookings.get(i).getStart())
+                    .min(Comparator.naturalOrder()).orElseThrow();
+            LocalDateTime to = indexes.stream().map(i -> bookings.get(i).getEnd())
+                    .max(Comparator.naturalOrder()).orElseThrow();
+            List<Booking> taken = new ArrayList<>(bookingRepository
+                    .findByItemIdAndStateNotAndStartBeforeAndEndAfter(itemId, State.REJECTED, to, from));
+            for (int i : indexes) {
+                BookingCreationDto bookingDto = bookings.get(i);
+                if (taken.stream().anyMatch(b -> b.getStart().isBefore(bookingDto.getEnd())
+                        && b.getEnd().isAfter(bookingDto.getStart()))) {
+                    results[i] = BookingBatchEntry.rejected(
+                            new ParamValidationException("данное время для бронирования недоступно"));
+                } else {
+                    Booking booking = MapperUtil.convertFromBookingCreationDto(bookingDto, items.get(itemId), booker);
+                    taken.add(booking);
+                    accepted.add(booking);
+                    acceptedIndexes.add(i);
+                }
+            }
+        });
+        if (!accepted.isEmpty()) {
+            bookingRepository.saveAll(accepted);
+            bookingRepository.flush();
+            ownerBookingRepository.insertFromBookings(
+                    accepted.stream().map(Booking::getId).collect(Collectors.toList()));
+        }
+        for (int k = 0; k < accepted.size(); k++) {
+            results[acceptedIndexes.get(k)] =
+                    BookingBatchEntry.created(MapperUtil.convertToBookingDto(accepted.get(k)));
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Подтверждение выполняется одним условным UPDATE; разбор, почему строка не подошла,
+     * делается только на пути ошибки и повторяет проверки в прежнем порядке.
+     */
     @Override
     public BookingDto confirmationBooking(long ownerId, long bookingId, Boolean approved) {
-        if (!userRepository.existsById(ownerId))
-            throw new UserNotFoundException("пользователя с id " + ownerId + " не существует");
         State state = State.REJECTED;
         if (approved) state = State.APPROVED;
+        if (bookingRepository.updateStateIfWaiting(bookingId, ownerId, state) == 0) {
+            throw confirmationFailure(ownerId, bookingId);
+        }
+        ownerBookingRepository.updateState(bookingId, state);
+        // Условный UPDATE не возвращает строку (RETURNING нет ни в JPQL, ни в H2), а вещь, автор и даты
+        // до него не загружались: они нужны только для ответа. Поэтому бронирование дочитывается одним
+        // запросом с join'ами; загрузка до UPDATE стоила бы столько же и добавила бы запрос на путь ошибки.
+        return MapperUtil.convertToBookingDto(bookingRepository.findById(bookingId).orElseThrow());
+    }
+
+    private RuntimeException confirmationFailure(long ownerId, long bookingId) {
+        if (!userRepository.existsById(ownerId))
+            return new UserNotFoundException("пользователя с id " + ownerId + " не существует");
         Optional<Booking> bookingOptional = bookingRepository.findById(bookingId);
-        Booking booking = bookingOptional.orElseThrow(() ->
-                new BookingNotFoundException("бронирования с id " + bookingId + " не существует"));
+        if (bookingOptional.isEmpty())
+            return new BookingNotFoundException("бронирования с id " + bookingId + " не существует");
+        Booking booking = bookingOptional.get();
         if (ownerId != booking.getItemOwnerId()) {
-            throw new BookingNotFoundException("пользователь " + ownerId + " не является владельцем вещи");
+            return new BookingNotFoundException("пользователь " + ownerId + " не является владельцем вещи");
         }
-        if (booking.getState() == State.WAITING) {
-            booking.setState(state);
-            return MapperUtil.convertToBookingDto(bookingRepository.save(booking));
-        } else {
-            throw new AvailableStatusException("нельзя забронировать вещь со статусом " + booking.getState());
+        return new AvailableStatusException("нельзя забронировать вещь со статусом " + booking.getState());
+    }
+
+    /**
+     * Все бронирования читаются одним запросом, изменённые уходят на сервер одним JDBC-пакетом UPDATE
+     * при сбросе контекста, а owner_bookings обновляется одним запросом на каждый итоговый статус.
+     * Ответы собираются после сброса, когда у сущностей уже новая @Version, как у одиночного подтверждения.
+     */
+    @Override
+    public List<BookingBatchEntry> confirmationBookings(long ownerId, List<BookingDecisionDto> decisions) {
+        if (!userRepository.existsById(ownerId))
+            throw new UserNotFoundException("пользователя с id " + ownerId + " не существует");
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = bookingRepository.findByIdIn(bookingIds).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        BookingBatchEntry[] results = new BookingBatchEntry[decisions.size()];
+        Map<Integer, Booking> accepted = new LinkedHashMap<>();
+        Map<State, List<Long>> changed = new EnumMap<>(State.class);
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Booking booking = bookings.get(decision.getBookingId());
+            if (booking == null) {
+                results[i] = BookingBatchEntry.rejected(new BookingNotFoundException(
+                        "бронирования с id " + decision.getBookingId() + " не существует"));
+            } else if (ownerId != booking.getItemOwnerId()) {
+                results[i] = BookingBatchEntry.rejected(new BookingNotFoundException(
+                        "пользователь " + ownerId + " не является владельцем вещи"));
+            } else if (booking.getState() != State.WAITING) {
+                results[i] = BookingBatchEntry.rejected(new AvailableStatusException(
+                        "нельзя забронировать вещь со статусом " + booking.getState()));
+            } else {
+                State state = decision.getApproved() ? State.APPROVED : State.REJECTED;
+                booking.setState(state);
+                changed.computeIfAbsent(state, s -> new ArrayList<>()).add(booking.getId());
+                accepted.put(i, booking);
+            }
+        }
+        if (!changed.isEmpty()) {
+            bookingRepository.flush();
+            changed.forEach((state, ids) -> ownerBookingRepository.updateStates(ids, state));
         }
+        accepted.forEach((i, booking) ->
+                results[i] = BookingBatchEntry.created(MapperUtil.convertToBookingDto(booking)));
+        return Arrays.asList(results);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getBookingVersionTag(long userId, long bookingId) {
+        return bookingRepository.findVersionTagByIdAndParticipant(bookingId, userId);
     }
 
     @Override
@@ -95,9 +238,8 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> getAllBookingsByUserId(long userId, String state, int from, int size) {
         if (!userRepository.existsById(userId))
             throw new UserNotFoundException("пользователя с id " + userId + " не существует");
-        Pageable pageable = PageRequest.of(from / size, size);
-        Pageable pageableWithSort = PageRequest.of(from / size, size
-                , Sort.by(Sort.Direction.DESC, "start"));
+        Pageable pageable = FromSizeRequest.of(from, size);
+        Pageable pageableWithSort = FromSizeRequest.of(from, size, NEWEST_FIRST);
         List<Booking> bookings;
         State currentState = State.valueOf(state);
         LocalDateTime now = LocalDateTime.now();
@@ -127,37 +269,44 @@ public class BookingServiceImpl implements BookingService {
         return MapperUtil.convertList(bookings, MapperUtil::convertToBookingDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsByUserId(long userId, String state, String cursor, int size) {
+        if (!userRepository.existsById(userId))
+            throw new UserNotFoundException("пользователя с id " + userId + " не существует");
+        PageCursor after = decodeCursor(state, cursor);
+        List<Booking> bookings = bookingRepository
+                .findByUserIdAfterCursor(userId, after.getTime(), after.getId(), PageRequest.of(0, size));
+        return MapperUtil.convertList(bookings, MapperUtil::convertToBookingDto);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<BookingDto> getAllBookingsByOwnerId(long ownerId, String state, int from, int size) {
         if (!userRepository.existsById(ownerId))
             throw new UserNotFoundException("пользователя с id " + ownerId + " не существует");
-        Pageable pageableWithSort = PageRequest.of(from / size, size
-                , Sort.by(Sort.Direction.DESC, "start"));
-        List<Booking> bookings;
+        Pageable pageableWithSort = FromSizeRequest.of(from, size, OWNER_NEWEST_FIRST);
+        List<OwnerBooking> bookings;
         State currentState = State.valueOf(state);
         LocalDateTime now = LocalDateTime.now();
         switch (currentState) {
             case ALL:
-                bookings = bookingRepository.findByItemOwnerId(ownerId, pageableWithSort);
+                bookings = ownerBookingRepository.findByOwnerId(ownerId, pageableWithSort);
                 break;
             case FUTURE:
-                bookings = bookingRepository
-                        .findBookingsByItemOwnerIdAndStartAfter(ownerId, now, pageableWithSort);
+                bookings = ownerBookingRepository.findByOwnerIdAndStartAfter(ownerId, now, pageableWithSort);
                 break;
             case PAST:
-                bookings = bookingRepository
-                        .findByItemOwnerIdAndEndBefore(ownerId, now, pageableWithSort);
+                bookings = ownerBookingRepository.findByOwnerIdAndEndBefore(ownerId, now, pageableWithSort);
                 break;
             case CURRENT:
-                bookings = bookingRepository
-                        .findByItemOwnerIdAndStartBeforeAndEndAfter(ownerId, now, now, pageableWithSort);
+                bookings = ownerBookingRepository
+                        .findByOwnerIdAndStartBeforeAndEndAfter(ownerId, now, now, pageableWithSort);
                 break;
             case WAITING:
             case REJECTED:
             case APPROVED:
-                bookings = bookingRepository
-                        .findByItemOwnerIdAndState(ownerId, currentState, pageableWithSort);
+                bookings = ownerBookingRepository.findByOwnerIdAndState(ownerId, currentState, pageableWithSort);
                 break;
             default:
                 throw new UnknownBookingStateException("Unknown state: " + currentState);
@@ -165,14 +314,44 @@ public class BookingServiceImpl implements BookingService {
         return MapperUtil.convertList(bookings, MapperUtil::convertToBookingDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookingDto> getAllBookingsByOwnerId(long ownerId, String state, String cursor, int size) {
+        if (!userRepository.existsById(ownerId))
+            throw new UserNotFoundException("пользователя с id " + ownerId + " не существует");
+        PageCursor after = decodeCursor(state, cursor);
+        List<OwnerBooking> bookings = ownerBookingRepository
+                .findByOwnerIdAfterCursor(ownerId, after.getTime(), after.getId(), PageRequest.of(0, size));
+        return MapperUtil.convertList(bookings, MapperUtil::convertToBookingDto);
+    }
+
+    private PageCursor decodeCursor(String state, String cursor) {
+        if (State.valueOf(state) != State.ALL) {
+            throw new PaginationException("курсорная пагинация поддерживается только для state=ALL");
+        }
+        return PageCursor.decodeTimed(cursor);
+    }
+
+    private RuntimeException checkBatchEntry(long userId, BookingCreationDto bookingDto, Item item) {
+        if (item == null) {
+            return new ItemNotFoundException("вещи с id " + bookingDto.getItemId() + " не существует");
+        }
+        if (userId == item.getOwner().getId()) {
+            return new ItemNotFoundException("владелец вещи не может её забронировать");
+        }
+        if (!item.getAvailable()) {
+            return new AvailableStatusException("попытка арендовать вещь, недоступную для аренды.");
+        }
+        if (bookingDto.getStart() == null || bookingDto.getEnd() == null
+                || !bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+            return new BookingDateException("начало бронирования должно быть раньше его окончания");
+        }
+        return null;
+    }
+
     private void findTimeIntersections(long itemId, LocalDateTime start, LocalDateTime end) {
-        List<Booking> bookings = bookingRepository.findByItemId(itemId);
-        for (Booking b : bookings) {
-            if (b.getStart().isBefore(start) && b.getEnd().isAfter(end)
-                    || b.getStart().isAfter(start) && b.getEnd().isBefore(end)
-                    || b.getStart().isEqual(start) && b.getEnd().isEqual(end)) {
-                throw new ParamValidationException("данное время для бронирования недоступно");
-            }
+        if (bookingRepository.existsByItemIdAndStateNotAndStartBeforeAndEndAfter(itemId, State.REJECTED, end, start)) {
+            throw new ParamValidationException("данное время для бронирования недоступно");
         }
     }
 }
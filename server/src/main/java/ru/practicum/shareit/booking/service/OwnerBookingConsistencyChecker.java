@@ -0,0 +1,37 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Периодически сверяет витрину owner_bookings с bookings, items и users. Расхождения
+ * (пропущенные строки или устаревшие поля) логируются и пересобираются из исходных таблиц.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OwnerBookingConsistencyChecker {
+    private final OwnerBookingRepository ownerBookingRepository;
+
+    @Transactional
+    @Scheduled(initialDelayString = "${shareit.owner-bookings.check-interval:PT1H}",
+            fixedDelayString = "${shareit.owner-bookings.check-interval:PT1H}")
+    public int check() {
+        List<Long> outOfSync = ownerBookingRepository.findOutOfSyncBookingIds().stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+        if (outOfSync.isEmpty()) return 0;
+        log.warn("Витрина бронирований владельца расходится с исходными таблицами для {} бронирований: {}",
+                outOfSync.size(), outOfSync);
+        ownerBookingRepository.deleteByBookingIdIn(outOfSync);
+        ownerBookingRepository.insertFromBookings(outOfSync);
+        return outOfSync.size();
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Кэш поиска пользователей и вещей по id. Размер, TTL и статистика задаются в spring.cache.caffeine.spec.
+ * В кэше лежат неизменяемые снимки (UserSnapshot, ItemSnapshot), а не сущности, так что потоки не делят
+ * изменяемое состояние. Кэширующий advice стоит снаружи транзакционного, поэтому @CacheEvict срабатывает
+ * после коммита. Но чтение, начатое до коммита, может положить старый снимок уже после сброса, поэтому
+ * снимок несёт версию сущности, и сервис сверяет её с версией в базе (запрос по первичному ключу мимо кэша)
+ * и при расхождении перечитывает снимок через @CachePut. Загрузка без sync = true: с ним запрос к базе шёл бы
+ * внутри compute Caffeine под монитором ConcurrentHashMap и держал бы несущий поток виртуального потока.
+ * Отсутствие записи тоже кэшируется, поэтому создание пользователя или вещи сбрасывает ключ нового id.
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String USER_EXISTS = "userExists";
+    public static final String ITEMS = "items";
+    public static final String ITEM_EXISTS = "itemExists";
+}
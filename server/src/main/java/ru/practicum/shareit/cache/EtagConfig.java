@@ -0,0 +1,25 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag по содержимому ответа для чтения вещей и запросов. Шлюз хранит эти ответы у себя и сверяет их
+ * через If-None-Match: при совпадении сервер отвечает 304 без тела. Всё, что шлюз кэширует (вещь и запрос
+ * по id, поиск вещей, списки запросов), получает ETag от версий сущностей прямо в контроллере, ещё до
+ * выборки и сборки DTO, так что сверка стоит одного-двух агрегатных запросов; фильтр такой ETag
+ * не перезаписывает. Остальным ответам он считает ETag по телу, что экономит только трафик.
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/items/*", "/requests/*");
+        return registration;
+    }
+}
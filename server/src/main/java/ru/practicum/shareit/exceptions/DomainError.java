@@ -0,0 +1,53 @@
+package ru.practicum.shareit.exceptions;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Статус и заголовок ответа для каждого исключения предметной области. По нему отвечают обработчики
+ * ResponseExceptionHandler и собираются ошибки отдельных элементов пакетных запросов.
+ */
+@Getter
+public enum DomainError {
+    PARAM_VALIDATION(ParamValidationException.class, HttpStatus.CONFLICT, "Ошибка при валидации"),
+    USER_NOT_FOUND(UserNotFoundException.class, HttpStatus.NOT_FOUND, "Ошибка при поиске пользователя"),
+    ITEM_NOT_FOUND(ItemNotFoundException.class, HttpStatus.NOT_FOUND, "Ошибка при поиске вещи"),
+    BOOKING_NOT_FOUND(BookingNotFoundException.class, HttpStatus.NOT_FOUND, "Ошибка при поиске бронирования"),
+    REQUEST_PARAM(RequestParamException.class, HttpStatus.NOT_FOUND, "Ошибка при указании параметров запроса"),
+    VERSION_CONFLICT(ObjectOptimisticLockingFailureException.class, HttpStatus.CONFLICT,
+            "Ошибка при параллельном изменении"),
+    AVAILABLE_STATUS(AvailableStatusException.class, HttpStatus.BAD_REQUEST, "Ошибка статуса доступа к аренде"),
+    BOOKING_DATE(BookingDateException.class, HttpStatus.BAD_REQUEST,
+            "Ошибка при указании временных диапазонов бронирования"),
+    UNKNOWN_BOOKING_STATE(UnknownBookingStateException.class, HttpStatus.INTERNAL_SERVER_ERROR,
+            "Unknown state: UNSUPPORTED_STATUS"),
+    REQUEST_NOT_FOUND(RequestNotFoundException.class, HttpStatus.NOT_FOUND, "Ошибка при поиске запроса к вещи"),
+    PAGINATION(PaginationException.class, HttpStatus.BAD_REQUEST, "Ошибка пагинации");
+
+    private final Class<? extends RuntimeException> exceptionType;
+    private final HttpStatus status;
+    private final String error;
+
+    DomainError(Class<? extends RuntimeException> exceptionType, HttpStatus status, String error) {
+        this.exceptionType = exceptionType;
+        this.status = status;
+        this.error = error;
+    }
+
+    public static Optional<DomainError> of(RuntimeException exp) {
+        return Arrays.stream(values()).filter(error -> error.exceptionType.isInstance(exp)).findFirst();
+    }
+
+    /**
+     * Текст ошибки для клиента. Сообщение ObjectOptimisticLockingFailureException раскрывает внутренние
+     * имена сущностей, поэтому вместо него клиент получает совет повторить изменение.
+     */
+    public String messageFor(RuntimeException exp) {
+        if (this == VERSION_CONFLICT) return "запись изменена другим запросом, повторите изменение";
+        return exp.getMessage();
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.exceptions;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolver;
@@ -15,37 +16,27 @@ public class ResponseExceptionHandler extends DefaultHandlerExceptionResolver {
 
     @ExceptionHandler(value = ParamValidationException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final ParamValidationException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(409).body((Map.of("error", "Ошибка при валидации", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.PARAM_VALIDATION, exp);
     }
 
     @ExceptionHandler(value = UserNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final UserNotFoundException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(404).body((Map.of("error", "Ошибка при поиске пользователя", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.USER_NOT_FOUND, exp);
     }
 
     @ExceptionHandler(value = ItemNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final ItemNotFoundException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(404).body((Map.of("error", "Ошибка при поиске вещи", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.ITEM_NOT_FOUND, exp);
     }
 
     @ExceptionHandler(value = BookingNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final BookingNotFoundException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(404).body((Map.of("error", "Ошибка при поиске бронирования", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.BOOKING_NOT_FOUND, exp);
     }
 
     @ExceptionHandler(value = RequestParamException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final RequestParamException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(404).body((Map.of("error", "Ошибка при указании параметров запроса", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.REQUEST_PARAM, exp);
     }
 
     @ExceptionHandler(value = SQLException.class)
@@ -55,38 +46,40 @@ public class ResponseExceptionHandler extends DefaultHandlerExceptionResolver {
                 exp.getMessage())));
     }
 
+    @ExceptionHandler(value = ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, String>> handleValidationExpCount(
+            final ObjectOptimisticLockingFailureException exp) {
+        return response(DomainError.VERSION_CONFLICT, exp);
+    }
+
     @ExceptionHandler(value = AvailableStatusException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final AvailableStatusException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(400).body((Map.of("error", "Ошибка статуса доступа к аренде", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.AVAILABLE_STATUS, exp);
     }
 
     @ExceptionHandler(value = BookingDateException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final BookingDateException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(400).body((Map.of("error", "Ошибка при указании временных диапазонов бронирования", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.BOOKING_DATE, exp);
     }
 
     @ExceptionHandler(value = UnknownBookingStateException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final UnknownBookingStateException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(500).body((Map.of("error", "Unknown state: UNSUPPORTED_STATUS", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.UNKNOWN_BOOKING_STATE, exp);
     }
 
     @ExceptionHandler(value = RequestNotFoundException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final RequestNotFoundException exp) {
-        log.error(exp.getMessage());
-        return ResponseEntity.status(404).body((Map.of("error", "Ошибка при поиске запроса к вещи", "errorMessage",
-                exp.getMessage())));
+        return response(DomainError.REQUEST_NOT_FOUND, exp);
     }
 
     @ExceptionHandler(value = PaginationException.class)
     public ResponseEntity<Map<String, String>> handleValidationExpCount(final PaginationException exp) {
+        return response(DomainError.PAGINATION, exp);
+    }
+
+    private static ResponseEntity<Map<String, String>> response(DomainError error, RuntimeException exp) {
         log.error(exp.getMessage());
-        return ResponseEntity.status(400).body((Map.of("error", "Ошибка пагинации", "errorMessage",
-                exp.getMessage())));
+        return ResponseEntity.status(error.getStatus()).body(Map.of("error", error.getError(), "errorMessage",
+                error.messageFor(exp)));
     }
 }
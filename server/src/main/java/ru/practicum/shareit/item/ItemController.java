@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -12,13 +13,16 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.mapper.MapperUtil.USER_ID_HEADER;
 
@@ -32,17 +36,24 @@ public class ItemController {
 
     @GetMapping("/{itemId}")
     public ItemDto getItemById(@PathVariable long itemId,
-                               @RequestHeader(USER_ID_HEADER) long userId) {
+                               @RequestHeader(USER_ID_HEADER) long userId,
+                               WebRequest request) {
         log.info("Get-запрос: получение вещи по id {}.", itemId);
+        Optional<String> etag = itemService.getItemVersionTag(itemId, userId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) return null;
         return itemService.getItemById(itemId, userId);
     }
 
     @GetMapping
-    public List<ItemDto> getAllItemsByUserId(@RequestHeader(USER_ID_HEADER) long ownerId,
-                                             @RequestParam int from,
-                                             @RequestParam int size) {
+    public ResponseEntity<List<ItemDto>> getAllItemsByUserId(@RequestHeader(USER_ID_HEADER) long ownerId,
+                                                             @RequestParam(required = false) Integer from,
+                                                             @RequestParam int size,
+                                                             @RequestParam(required = false) String cursor) {
         log.info("Get-запрос: получение всех вещей пользователя с id {}.", ownerId);
-        return itemService.getAllItemsByOwnerId(ownerId, from, size);
+        List<ItemDto> items = cursor == null
+                ? itemService.getAllItemsByOwnerId(ownerId, PageCursor.requireFrom(from), size)
+                : itemService.getAllItemsByOwnerId(ownerId, cursor, size);
+        return PageCursor.withNextCursor(items, size, item -> PageCursor.of(item.getId()));
     }
 
     @PostMapping
@@ -62,8 +73,11 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> searchItemsByText(@RequestParam String text,
                                            @RequestParam int from,
-                                           @RequestParam int size) {
+                                           @RequestParam int size,
+                                           WebRequest request) {
         log.info("Get-запрос: поиск вещи по тексту {} в названии или описании.", text);
+        Optional<String> etag = itemService.getSearchVersionTag(text);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) return null;
         return itemService.searchItemsByText(text, from, size);
     }
 
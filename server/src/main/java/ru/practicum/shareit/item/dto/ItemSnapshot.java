@@ -0,0 +1,18 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.Value;
+
+/**
+ * Неизменяемый снимок полей вещи для кэша. Комментарии и бронирования в него не входят:
+ * они меняются отдельно от вещи и читаются на каждый запрос.
+ */
+@Value
+public class ItemSnapshot {
+    Long id;
+    String name;
+    String description;
+    Boolean available;
+    Long ownerId;
+    Long requestId;
+    Long version;
+}
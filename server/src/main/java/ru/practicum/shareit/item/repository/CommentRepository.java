@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Comment;
 
@@ -9,7 +10,9 @@ import java.util.Set;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    @Query("select c from Comment c where c.item.id = ?1 order by c.created desc")
     List<Comment> findByItemIdOrderByCreatedDesc(long itemId);
 
+    @Query("select c from Comment c where c.item.id in ?1")
     List<Comment> findByItemIdIn(Set<Long> itemId);
 }
@@ -1,30 +1,105 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.cache.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    String SNAPSHOT_QUERY = "select new ru.practicum.shareit.item.dto.ItemSnapshot(i.id, i.name, i.description, " +
+            "i.available, i.owner.id, i.requestId, i.version) from Item i where i.id = ?1";
 
+    @Override
+    @Cacheable(cacheNames = CacheConfig.ITEM_EXISTS, unless = "!#result")
+    boolean existsById(Long itemId);
+
+    @Cacheable(cacheNames = CacheConfig.ITEMS)
+    @Query(SNAPSHOT_QUERY)
+    Optional<ItemSnapshot> findSnapshotById(long itemId);
+
+    /**
+     * Перечитывает снимок из базы и кладёт его в кэш поверх устаревшего.
+     */
+    @CachePut(cacheNames = CacheConfig.ITEMS)
+    @Query(SNAPSHOT_QUERY)
+    Optional<ItemSnapshot> refreshSnapshotById(long itemId);
+
+    /**
+     * Версия вещи для сверки снимка из кэша, читается мимо кэша.
+     */
+    @Query("select i.version from Item i where i.id = ?1")
+    Optional<Long> findVersionById(long itemId);
+
+    /**
+     * Фильтр по вхождению текста обслуживают trigram-индексы PostgreSQL (V3), порядок задаёт
+     * item_search_rank из миграции V7 для своей СУБД. Шаблон LIKE собирается в SQL, а не через %?1%:
+     * Spring Data оборачивает параметр в % во всех его вхождениях, и в функцию попал бы шаблон вместо текста.
+     */
     @Query(value = "select * " +
             "from items as i " +
-            "where upper(i.name) like %?1% " +
-            "or upper(i.description) like %?1% " +
-            "and i.available = true", nativeQuery = true)
+            "where i.available = true " +
+            "and (upper(i.name) like '%' || ?1 || '%' or upper(i.description) like '%' || ?1 || '%') " +
+            "order by item_search_rank(upper(i.name), upper(i.description), ?1) desc, i.id", nativeQuery = true)
     List<Item> findByNameOrDescriptionContaining(String text, Pageable pageable);
 
     Optional<Item> findByIdAndOwnerId(long itemId, long ownerId);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Item> findLockedById(long itemId);
+
+    /**
+     * Блокирует вещи в порядке id, чтобы пакеты с пересекающимися вещами не ждали друг друга по кругу.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id in ?1 order by i.id")
+    List<Item> findLockedByIdIn(Collection<Long> itemIds);
+
     List<Item> findByOwnerId(long ownerId, Pageable pageable);
 
+    List<Item> findByOwnerIdAndIdGreaterThanOrderByIdAsc(long ownerId, long id, Pageable pageable);
+
     List<Item> findAllByRequestIdIn(Set<Long> requestsId);
 
     List<Item> findByRequestId(long requestId);
+
+    /**
+     * Версия вещи и отпечаток её комментариев: их число, последний id и сумма версий авторов,
+     * чьи имена попадают в ответ. Меняется при любом изменении, видном в ItemDto, кроме бронирований.
+     */
+    @Query("select i.owner.id as ownerId, " +
+            "concat(str(i.version), '.', str(count(c)), '.', str(coalesce(max(c.id), 0)), '.', " +
+            "str(coalesce(sum(a.version), 0))) as tag " +
+            "from Item i left join Comment c on c.item = i left join c.author a " +
+            "where i.id = ?1 " +
+            "group by i.id, i.owner.id, i.version")
+    Optional<VersionTag> findVersionTagById(long itemId);
+
+    /**
+     * Отпечаток всех вещей, подходящих под поиск: их число, последний id и сумма версий. Меняется, если вещь
+     * попала в выдачу, выпала из неё или изменилась, и стоит одного агрегата без сортировки и сборки DTO.
+     */
+    @Query("select concat(str(count(i)), '.', str(coalesce(max(i.id), 0)), '.', str(coalesce(sum(i.version), 0))) " +
+            "from Item i " +
+            "where i.available = true " +
+            "and (upper(i.name) like %?1% or upper(i.description) like %?1%)")
+    String findSearchVersionTag(String text);
+
+    interface VersionTag {
+        Long getOwnerId();
+
+        String getTag();
+    }
 }
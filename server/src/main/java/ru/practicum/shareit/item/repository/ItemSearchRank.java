@@ -0,0 +1,15 @@
+package ru.practicum.shareit.item.repository;
+
+/**
+ * Релевантность поиска вещей для H2, где нет pg_trgm. Миграция V7 регистрирует метод как SQL-функцию
+ * item_search_rank; в PostgreSQL та же функция дополнительно упорядочивает вещи по similarity.
+ */
+public final class ItemSearchRank {
+
+    private ItemSearchRank() {
+    }
+
+    public static double rank(String name, String description, String query) {
+        return name != null && name.contains(query) ? 1 : 0;
+    }
+}
@@ -6,12 +6,17 @@ import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemService {
     ItemDto getItemById(long itemId, long userId);
 
+    Optional<String> getItemVersionTag(long itemId, long userId);
+
     List<ItemDto> getAllItemsByOwnerId(long ownerId, int from, int size);
 
+    List<ItemDto> getAllItemsByOwnerId(long ownerId, String cursor, int size);
+
     ItemDto createItem(ItemCreationDto itemDto, long owner);
 
     ItemDto updateItem(ItemDto itemDto, long userId, long itemId);
@@ -19,4 +24,6 @@ public interface ItemService {
     CommentDto addComment(long userId, long itemId, CommentCreationDto comment);
 
     List<ItemDto> searchItemsByText(String text, int from, int size);
+
+    Optional<String> getSearchVersionTag(String text);
 }
@@ -1,13 +1,17 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
+import ru.practicum.shareit.cache.CacheConfig;
 import ru.practicum.shareit.exceptions.AvailableStatusException;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.RequestNotFoundException;
@@ -17,20 +21,26 @@ import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.retry.RetryOnVersionConflict;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -43,6 +53,7 @@ public class ItemServiceImpl implements ItemService {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final OwnerBookingRepository ownerBookingRepository;
     private final ItemRequestRepository requestRepository;
 
     @Override
@@ -62,29 +73,49 @@ public class ItemServiceImpl implements ItemService {
             if (nextOpt.isPresent()) nextBooking = MapperUtil.convertToBookingForItemDto(nextOpt.get());
             return MapperUtil.convertToItemDto(itemOpt.get(), lastBooking, nextBooking, commentsDto);
         }
-        return MapperUtil.convertToItemDto(itemRepository.findById(itemId).orElseThrow(), commentsDto);
+        return MapperUtil.convertToItemDto(findCurrentSnapshot(itemId).orElseThrow(), commentsDto);
+    }
+
+    /**
+     * Снимок вещи из кэша, если его версия совпадает с версией в базе, иначе свежий из базы (см. CacheConfig).
+     */
+    private Optional<ItemSnapshot> findCurrentSnapshot(long itemId) {
+        Optional<ItemSnapshot> snapshot = itemRepository.findSnapshotById(itemId);
+        if (snapshot.map(ItemSnapshot::getVersion).equals(itemRepository.findVersionById(itemId))) return snapshot;
+        return itemRepository.refreshSnapshotById(itemId);
+    }
+
+    /**
+     * Владельцу видны последнее и следующее бронирования, а они зависят ещё и от текущего времени,
+     * поэтому для него к версии вещи добавляются id и версии этих бронирований.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getItemVersionTag(long itemId, long userId) {
+        return itemRepository.findVersionTagById(itemId).map(version -> {
+            if (!Objects.equals(version.getOwnerId(), userId)) return version.getTag();
+            return version.getTag() + "." + bookingTag(bookingRepository.findByItemIdAndLastBooking(itemId))
+                    + "." + bookingTag(bookingRepository.findByItemIdAndNextBooking(itemId));
+        });
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> getAllItemsByOwnerId(long ownerId, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size);
-        Map<Long, Item> itemMap = itemRepository.findByOwnerId(ownerId, pageable)
-                .stream().collect(Collectors.toMap(Item::getId, Function.identity()));
-        Map<Long, List<CommentDto>> commentMap = MapperUtil.convertList(commentRepository
-                        .findByItemIdIn(itemMap.keySet()), MapperUtil::convertToCommentDto)
-                .stream().collect(Collectors.groupingBy(CommentDto::getItemId));
-        Map<Long, BookingForItemDto> lastBookingMap = MapperUtil.convertList(bookingRepository
-                        .findAllByItemIdAndLastBooking(itemMap.keySet()), MapperUtil::convertToBookingForItemDto)
-                .stream().collect(Collectors.toMap(BookingForItemDto::getItemId, Function.identity()));
-        Map<Long, BookingForItemDto> nextBookingMap = MapperUtil.convertList(bookingRepository
-                        .findAllByItemIdAndNextBooking(itemMap.keySet()), MapperUtil::convertToBookingForItemDto)
-                .stream().collect(Collectors.toMap(BookingForItemDto::getItemId, Function.identity()));
-        return itemMap.values().stream().map(item -> MapperUtil.convertToItemDto(item, lastBookingMap.get(item.getId()),
-                nextBookingMap.get(item.getId()), commentMap.get(item.getId()))).collect(Collectors.toList());
+        Pageable pageable = FromSizeRequest.of(from, size, Sort.by("id"));
+        return collectItemsWithBookings(itemRepository.findByOwnerId(ownerId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> getAllItemsByOwnerId(long ownerId, String cursor, int size) {
+        PageCursor after = PageCursor.decode(cursor);
+        return collectItemsWithBookings(itemRepository
+                .findByOwnerIdAndIdGreaterThanOrderByIdAsc(ownerId, after.getId(), PageRequest.of(0, size)));
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#result.id")
     public ItemDto createItem(ItemCreationDto itemDto, long ownerId) {
         checkValidItem(itemDto);
         Optional<User> ownerOpt = userRepository.findById(ownerId);
@@ -99,10 +130,13 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.ITEMS, key = "#itemId")
+    @RetryOnVersionConflict
     public ItemDto updateItem(ItemDto itemDto, long userId, long itemId) {
         itemDto.setId(itemId);
         Item item = updateItemFromDtoParam(itemDto, userId);
         Item updateItem = itemRepository.save(item);
+        ownerBookingRepository.updateItemDetails(itemId, updateItem.getName(), updateItem.getDescription());
         return MapperUtil.convertToItemDto(updateItem);
     }
 
@@ -122,7 +156,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional(readOnly = true)
     public List<ItemDto> searchItemsByText(String text, int from, int size) {
-        Pageable pageable = PageRequest.of(from / size, size);
+        Pageable pageable = FromSizeRequest.of(from, size);
         String textForSearch = text.toUpperCase(Locale.ROOT);
         List<ItemDto> result = new ArrayList<>();
         if (textForSearch.isBlank()) {
@@ -134,6 +168,30 @@ public class ItemServiceImpl implements ItemService {
         return result;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getSearchVersionTag(String text) {
+        String textForSearch = text.toUpperCase(Locale.ROOT);
+        if (textForSearch.isBlank()) return Optional.empty();
+        return Optional.of(itemRepository.findSearchVersionTag(textForSearch));
+    }
+
+    private List<ItemDto> collectItemsWithBookings(List<Item> items) {
+        Map<Long, Item> itemMap = items.stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity(), (a, b) -> a, LinkedHashMap::new));
+        Map<Long, List<CommentDto>> commentMap = MapperUtil.convertList(commentRepository
+                        .findByItemIdIn(itemMap.keySet()), MapperUtil::convertToCommentDto)
+                .stream().collect(Collectors.groupingBy(CommentDto::getItemId));
+        Map<Long, BookingForItemDto> lastBookingMap = MapperUtil.convertList(bookingRepository
+                        .findAllByItemIdAndLastBooking(itemMap.keySet()), MapperUtil::convertToBookingForItemDto)
+                .stream().collect(Collectors.toMap(BookingForItemDto::getItemId, Function.identity()));
+        Map<Long, BookingForItemDto> nextBookingMap = MapperUtil.convertList(bookingRepository
+                        .findAllByItemIdAndNextBooking(itemMap.keySet()), MapperUtil::convertToBookingForItemDto)
+                .stream().collect(Collectors.toMap(BookingForItemDto::getItemId, Function.identity()));
+        return itemMap.values().stream().map(item -> MapperUtil.convertToItemDto(item, lastBookingMap.get(item.getId()),
+                nextBookingMap.get(item.getId()), commentMap.get(item.getId()))).collect(Collectors.toList());
+    }
+
     private void checkValidItem(ItemCreationDto itemDto) {
         if (itemDto.getName() == null || itemDto.getDescription() == null) {
             throw new ParamValidationException("не указаны имя или описание вещи");
@@ -159,4 +217,8 @@ public class ItemServiceImpl implements ItemService {
         }
         return updatedItem;
     }
+
+    private static String bookingTag(Optional<Booking> booking) {
+        return booking.map(b -> b.getId() + "v" + b.getVersion()).orElse("0");
+    }
 }
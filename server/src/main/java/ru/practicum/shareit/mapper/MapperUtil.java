@@ -1,11 +1,11 @@
 package ru.practicum.shareit.mapper;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.context.annotation.Configuration;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingForItemDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.OwnerBooking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -13,12 +13,14 @@ import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemForRequestDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -28,7 +30,6 @@ import java.util.stream.Collectors;
 
 @Configuration
 public class MapperUtil {
-    private static final ModelMapper modelMapper = new ModelMapper();
     public static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
     public static <R, E> List<R> convertList(List<E> list, Function<E, R> converter) {
@@ -36,7 +37,11 @@ public class MapperUtil {
     }
 
     public static UserDto convertToUserDto(User user) {
-        return modelMapper.map(user, UserDto.class);
+        return new UserDto(user.getId(), user.getEmail(), user.getName());
+    }
+
+    public static UserDto convertToUserDto(UserSnapshot user) {
+        return new UserDto(user.getId(), user.getEmail(), user.getName());
     }
 
     public static User convertFromUserDto(UserDto userDto) {
@@ -58,7 +63,7 @@ public class MapperUtil {
     }
 
     public static ItemForBookingDto convertToItemForBookingDto(Item item) {
-        return modelMapper.map(item, ItemForBookingDto.class);
+        return new ItemForBookingDto(item.getId(), item.getName(), item.getDescription());
     }
 
     public static ItemDto convertToItemDto(Item item, BookingForItemDto last,
@@ -76,6 +81,18 @@ public class MapperUtil {
         return itemDto;
     }
 
+    public static ItemDto convertToItemDto(ItemSnapshot item, List<CommentDto> comments) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .owner(item.getOwnerId())
+                .requestId(item.getRequestId())
+                .comments(comments)
+                .build();
+    }
+
     public static Item convertFromItemCreationDto(ItemCreationDto itemCreationDto, User owner) {
         return Item.builder()
                 .name(itemCreationDto.getName())
@@ -108,6 +125,17 @@ public class MapperUtil {
                 .build();
     }
 
+    public static BookingDto convertToBookingDto(OwnerBooking booking) {
+        return BookingDto.builder()
+                .id(booking.getBookingId())
+                .item(new ItemForBookingDto(booking.getItemId(), booking.getItemName(), booking.getItemDescription()))
+                .booker(new UserDto(booking.getBookerId(), booking.getBookerEmail(), booking.getBookerName()))
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getState())
+                .build();
+    }
+
     public static BookingForItemDto convertToBookingForItemDto(Booking booking) {
         return BookingForItemDto
                 .builder()
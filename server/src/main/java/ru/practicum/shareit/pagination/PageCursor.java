@@ -0,0 +1,76 @@
+package ru.practicum.shareit.pagination;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exceptions.PaginationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@EqualsAndHashCode
+public class PageCursor {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String SEPARATOR = "|";
+    private final LocalDateTime time;
+    private final long id;
+
+    private PageCursor(LocalDateTime time, long id) {
+        this.time = time;
+        this.id = id;
+    }
+
+    public static PageCursor of(LocalDateTime time, Long id) {
+        return id == null ? null : new PageCursor(time, id);
+    }
+
+    public static PageCursor of(Long id) {
+        return of(null, id);
+    }
+
+    public String encode() {
+        String raw = (time == null ? "" : time.toString()) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator < 0) throw new PaginationException("некорректный курсор: " + token);
+            String time = raw.substring(0, separator);
+            long id = Long.parseLong(raw.substring(separator + 1));
+            return new PageCursor(time.isEmpty() ? null : LocalDateTime.parse(time), id);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new PaginationException("некорректный курсор: " + token);
+        }
+    }
+
+    public static PageCursor decodeTimed(String token) {
+        PageCursor cursor = decode(token);
+        if (cursor.getTime() == null) throw new PaginationException("некорректный курсор: " + token);
+        return cursor;
+    }
+
+    /**
+     * from нужен только постраничной выдаче без курсора: клиент, идущий по X-Next-Cursor, его не передаёт.
+     */
+    public static int requireFrom(Integer from) {
+        if (from == null) throw new PaginationException("нужно указать from или cursor");
+        return from;
+    }
+
+    public static <T> ResponseEntity<List<T>> withNextCursor(List<T> page, int size, Function<T, PageCursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() == size) {
+            PageCursor next = cursorOf.apply(page.get(page.size() - 1));
+            if (next != null) response.header(NEXT_CURSOR_HEADER, next.encode());
+        }
+        return response.body(page);
+    }
+}
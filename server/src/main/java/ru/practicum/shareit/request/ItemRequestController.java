@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,11 +12,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
+import java.util.Optional;
 
 import static ru.practicum.shareit.mapper.MapperUtil.USER_ID_HEADER;
 
@@ -35,23 +39,36 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public List<ItemRequestDto> getRequestsByUserId(@RequestHeader(USER_ID_HEADER) long userId) {
+    public List<ItemRequestDto> getRequestsByUserId(@RequestHeader(USER_ID_HEADER) long userId,
+                                                    WebRequest request) {
         log.info("Get-запрос: получение списка запросов юзера {}", userId);
+        Optional<String> etag = requestService.getRequestsVersionTag(userId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) return null;
         return requestService.getAllRequestsByUserId(userId);
     }
 
     @GetMapping("/all")
-    public List<ItemRequestDto> getAllRequests(@RequestHeader(USER_ID_HEADER) long userId,
-                                               @RequestParam int from,
-                                               @RequestParam int size) {
+    public ResponseEntity<List<ItemRequestDto>> getAllRequests(@RequestHeader(USER_ID_HEADER) long userId,
+                                                               @RequestParam(required = false) Integer from,
+                                                               @RequestParam int size,
+                                                               @RequestParam(required = false) String cursor,
+                                                               WebRequest request) {
         log.info("Get-запрос: получение постраничного списка всех существующих запросов для юзера {}", userId);
-        return requestService.getAllRequests(userId, from, size);
+        Optional<String> etag = requestService.getAllRequestsVersionTag(userId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) return null;
+        List<ItemRequestDto> requests = cursor == null
+                ? requestService.getAllRequests(userId, PageCursor.requireFrom(from), size)
+                : requestService.getAllRequests(userId, cursor, size);
+        return PageCursor.withNextCursor(requests, size, r -> PageCursor.of(r.getCreated(), r.getId()));
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getRequestById(@RequestHeader(USER_ID_HEADER) long userId,
-                                         @PathVariable long requestId) {
+                                         @PathVariable long requestId,
+                                         WebRequest request) {
         log.info("Get-запрос: получение запроса с id {} юзером {}", requestId, userId);
+        Optional<String> etag = requestService.getRequestVersionTag(userId, requestId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) return null;
         return requestService.getRequestById(userId, requestId);
     }
 }
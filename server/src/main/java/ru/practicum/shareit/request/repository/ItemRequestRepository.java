@@ -2,16 +2,59 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("select r from ItemRequest r where r.author.id = ?1 order by r.created desc")
     List<ItemRequest> findByAuthorIdOrderByCreatedDesc(long userId);
 
+    @Query("select r from ItemRequest r where r.author.id <> ?1")
     List<ItemRequest> findByAuthorIdIsNot(long authorId, Pageable pageable);
 
+    @Query("select r from ItemRequest r " +
+            "where r.author.id <> ?1 " +
+            "and r.created <= ?2 and (r.created < ?2 or r.id < ?3) " +
+            "order by r.created desc, r.id desc")
+    List<ItemRequest> findByAuthorIdIsNotAfterCursor(long authorId, LocalDateTime created, long id, Pageable pageable);
+
+
+    /**
+     * Версия запроса и отпечаток откликнувшихся вещей: их число, последний id и сумма версий.
+     */
+    @Query("select concat(str(r.version), '.', str(count(i)), '.', str(coalesce(max(i.id), 0)), '.', " +
+            "str(coalesce(sum(i.version), 0))) " +
+            "from ItemRequest r left join Item i on i.requestId = r.id " +
+            "where r.id = ?1 " +
+            "group by r.id, r.version")
+    Optional<String> findVersionTagById(long requestId);
+
+    /**
+     * Отпечаток запросов автора: их число, последний id и сумма версий.
+     */
+    @Query("select concat(str(count(r)), '.', str(coalesce(max(r.id), 0)), '.', str(coalesce(sum(r.version), 0))) " +
+            "from ItemRequest r where r.author.id = ?1")
+    String findVersionTagByAuthorId(long authorId);
+
+    /**
+     * Отпечаток вещей, откликнувшихся на запросы автора.
+     */
+    @Query("select concat(str(count(i)), '.', str(coalesce(max(i.id), 0)), '.', str(coalesce(sum(i.version), 0))) " +
+            "from Item i where i.requestId in (select r.id from ItemRequest r where r.author.id = ?1)")
+    String findItemsVersionTagByAuthorId(long authorId);
+
+    @Query("select concat(str(count(r)), '.', str(coalesce(max(r.id), 0)), '.', str(coalesce(sum(r.version), 0))) " +
+            "from ItemRequest r where r.author.id <> ?1")
+    String findVersionTagByAuthorIdIsNot(long authorId);
+
+    @Query("select concat(str(count(i)), '.', str(coalesce(max(i.id), 0)), '.', str(coalesce(sum(i.version), 0))) " +
+            "from Item i where i.requestId in (select r.id from ItemRequest r where r.author.id <> ?1)")
+    String findItemsVersionTagByAuthorIdIsNot(long authorId);
 }
@@ -4,6 +4,7 @@ import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestService {
     ItemRequestDto createRequest(long userId, ItemRequestCreationDto requestCreationDto);
@@ -12,5 +13,13 @@ public interface ItemRequestService {
 
     List<ItemRequestDto> getAllRequests(long userId, int from, int size);
 
+    List<ItemRequestDto> getAllRequests(long userId, String cursor, int size);
+
     ItemRequestDto getRequestById(long userId, long requestId);
+
+    Optional<String> getRequestVersionTag(long userId, long requestId);
+
+    Optional<String> getRequestsVersionTag(long userId);
+
+    Optional<String> getAllRequestsVersionTag(long userId);
 }
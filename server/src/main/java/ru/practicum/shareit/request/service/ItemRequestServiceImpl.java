@@ -12,6 +12,8 @@ import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.FromSizeRequest;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -46,29 +48,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllRequestsByUserId(long userId) {
         checkUser(userId);
-        List<ItemRequest> requestList = requestRepository.findByAuthorIdOrderByCreatedDesc(userId);
-        Set<Long> requestsId = requestList.stream().map(ItemRequest::getId).collect(Collectors.toSet());
-        Map<Long, List<ItemForRequestDto>> items = MapperUtil
-                .convertList(itemRepository.findAllByRequestIdIn(requestsId), MapperUtil::convertToItemForRequestDto)
-                .stream().collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
-        return requestList.stream().map(request ->
-                MapperUtil.convertToItemRequestDto(request, items.getOrDefault(request.getId(),
-                        new ArrayList<>()))).collect(Collectors.toList());
+        return collectRequestsWithItems(requestRepository.findByAuthorIdOrderByCreatedDesc(userId));
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<ItemRequestDto> getAllRequests(long userId, int from, int size) {
         checkUser(userId);
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "created"));
-        List<ItemRequest> requests = requestRepository.findByAuthorIdIsNot(userId, pageable);
-        Set<Long> requestsId = requests.stream().map(ItemRequest::getId).collect(Collectors.toSet());
-        Map<Long, List<ItemForRequestDto>> items = MapperUtil
-                .convertList(itemRepository.findAllByRequestIdIn(requestsId), MapperUtil::convertToItemForRequestDto)
-                .stream().collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
-        return requests.stream().map(request ->
-                MapperUtil.convertToItemRequestDto(request, items.getOrDefault(request.getId(),
-                        new ArrayList<>()))).collect(Collectors.toList());
+        Pageable pageable = FromSizeRequest.of(from, size, Sort.by(Sort.Direction.DESC, "created", "id"));
+        return collectRequestsWithItems(requestRepository.findByAuthorIdIsNot(userId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemRequestDto> getAllRequests(long userId, String cursor, int size) {
+        checkUser(userId);
+        PageCursor after = PageCursor.decodeTimed(cursor);
+        return collectRequestsWithItems(requestRepository
+                .findByAuthorIdIsNotAfterCursor(userId, after.getTime(), after.getId(), PageRequest.of(0, size)));
     }
 
     @Override
@@ -84,6 +81,43 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 .convertList(responses, MapperUtil::convertToItemForRequestDto));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getRequestVersionTag(long userId, long requestId) {
+        if (!userRepository.existsById(userId)) return Optional.empty();
+        return requestRepository.findVersionTagById(requestId);
+    }
+
+    /**
+     * Списки запросов зависят от пользователя, поэтому его id входит в тег наравне с отпечатками
+     * запросов и откликнувшихся вещей.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getRequestsVersionTag(long userId) {
+        if (!userRepository.existsById(userId)) return Optional.empty();
+        return Optional.of(userId + "." + requestRepository.findVersionTagByAuthorId(userId)
+                + "." + requestRepository.findItemsVersionTagByAuthorId(userId));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getAllRequestsVersionTag(long userId) {
+        if (!userRepository.existsById(userId)) return Optional.empty();
+        return Optional.of(userId + "." + requestRepository.findVersionTagByAuthorIdIsNot(userId)
+                + "." + requestRepository.findItemsVersionTagByAuthorIdIsNot(userId));
+    }
+
+    private List<ItemRequestDto> collectRequestsWithItems(List<ItemRequest> requests) {
+        Set<Long> requestsId = requests.stream().map(ItemRequest::getId).collect(Collectors.toSet());
+        Map<Long, List<ItemForRequestDto>> items = MapperUtil
+                .convertList(itemRepository.findAllByRequestIdIn(requestsId), MapperUtil::convertToItemForRequestDto)
+                .stream().collect(Collectors.groupingBy(ItemForRequestDto::getRequestId));
+        return requests.stream().map(request ->
+                MapperUtil.convertToItemRequestDto(request, items.getOrDefault(request.getId(),
+                        new ArrayList<>()))).collect(Collectors.toList());
+    }
+
     private void checkUser(long userId) {
         if (!userRepository.existsById(userId)) throw new UserNotFoundException("юзера с id " + userId + " нет");
     }
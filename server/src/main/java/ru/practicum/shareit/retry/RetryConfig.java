@@ -0,0 +1,14 @@
+package ru.practicum.shareit.retry;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+/**
+ * Повтор изменений, проигравших гонку по @Version. Advice повтора стоит снаружи транзакционного
+ * (LOWEST_PRECEDENCE - 1 против LOWEST_PRECEDENCE), поэтому каждая попытка идёт в новой транзакции
+ * и перечитывает сущность, а кэширующий advice стоит снаружи обоих.
+ */
+@Configuration
+@EnableRetry
+public class RetryConfig {
+}
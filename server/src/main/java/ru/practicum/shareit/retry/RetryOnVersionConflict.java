@@ -0,0 +1,21 @@
+package ru.practicum.shareit.retry;
+
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Метод целиком повторяется, если при коммите версия сущности разошлась с прочитанной.
+ * После последней попытки исключение уходит клиенту как 409.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Retryable(value = ObjectOptimisticLockingFailureException.class, maxAttempts = 3,
+        backoff = @Backoff(delay = 10, multiplier = 2, random = true))
+public @interface RetryOnVersionConflict {
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.sql;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Включает проверку бюджета SQL-запросов для всех контроллеров. Отключается shareit.query-budget.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.query-budget.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueryBudgetConfig implements WebMvcConfigurer {
+    private final QueryBudgetProperties properties;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(properties));
+    }
+}
@@ -0,0 +1,61 @@
+package ru.practicum.shareit.sql;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Map;
+
+/**
+ * Замеряет SQL каждого запроса к контроллеру, от входа в обработчик до записи ответа, и предупреждает в логе,
+ * если запрос вышел за бюджет или повторил один и тот же SQL больше repeat-threshold раз: так выглядит N+1,
+ * когда ленивая связь догружается отдельно для каждой строки.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    private static final String MEASUREMENT_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".measurement";
+    private final QueryBudgetProperties properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            request.setAttribute(MEASUREMENT_ATTRIBUTE, SqlStatementCounter.start());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        Object attribute = request.getAttribute(MEASUREMENT_ATTRIBUTE);
+        if (!(attribute instanceof SqlStatementCounter.Measurement)) {
+            return;
+        }
+        request.removeAttribute(MEASUREMENT_ATTRIBUTE);
+        SqlStatementCounter.Measurement measurement = (SqlStatementCounter.Measurement) attribute;
+        measurement.close();
+
+        HandlerMethod handlerMethod = (HandlerMethod) handler;
+        String endpoint = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        Integer endpointBudget = properties.getEndpoints().get(endpoint);
+        int budget = endpointBudget != null ? endpointBudget : properties.getPerRequest();
+        log.debug("{} {}: {} SQL-запросов.", request.getMethod(), request.getRequestURI(), measurement.getCount());
+        if (measurement.getCount() > budget) {
+            log.warn("{} {} ({}) выполнил {} SQL-запросов при бюджете {}.", request.getMethod(),
+                    request.getRequestURI(), endpoint, measurement.getCount(), budget);
+        }
+        if (endpointBudget != null) {
+            return;
+        }
+        for (Map.Entry<String, Integer> statement : measurement.getStatements().entrySet()) {
+            if (statement.getValue() > properties.getRepeatThreshold()) {
+                log.warn("{} {} ({}) выполнил один SQL {} раз, возможен N+1: {}", request.getMethod(),
+                        request.getRequestURI(), endpoint, statement.getValue(), statement.getKey());
+            }
+        }
+    }
+}
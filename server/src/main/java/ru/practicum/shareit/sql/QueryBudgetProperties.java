@@ -0,0 +1,34 @@
+package ru.practicum.shareit.sql;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Бюджет SQL-запросов на один HTTP-запрос (shareit.query-budget.*).
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "shareit.query-budget")
+public class QueryBudgetProperties {
+    private boolean enabled = true;
+    /**
+     * Сколько SQL-запросов может выполнить обработчик, для которого нет своего бюджета в endpoints.
+     */
+    private int perRequest = 10;
+    /**
+     * Бюджеты отдельных обработчиков по ключу Контроллер.метод, например
+     * shareit.query-budget.endpoints[BookingController.createBookings]=110. Свой бюджет задают обработчикам,
+     * которые выполняют запрос на каждый элемент пакета намеренно, поэтому повторы SQL у них не проверяются.
+     */
+    private Map<String, Integer> endpoints = new HashMap<>();
+    /**
+     * Один и тот же SQL, выполненный за запрос больше этого числа раз, считается признаком N+1.
+     */
+    private int repeatThreshold = 3;
+}
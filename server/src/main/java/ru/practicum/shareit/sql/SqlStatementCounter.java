@@ -0,0 +1,70 @@
+package ru.practicum.shareit.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Считает SQL, который Hibernate готовит в текущем потоке, пока открыт замер {@link #start()}.
+ * Подключается через hibernate.session_factory.statement_inspector, поэтому Hibernate создаёт его сам,
+ * а замер живёт в ThreadLocal. Пакетная вставка или обновление готовится один раз и считается одним запросом.
+ */
+public class SqlStatementCounter implements StatementInspector {
+    private static final ThreadLocal<Measurement> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Открывает замер в текущем потоке. Вложенный замер на время своей работы заменяет внешний,
+     * запросы внутри него внешнему не засчитываются.
+     */
+    public static Measurement start() {
+        Measurement measurement = new Measurement(CURRENT.get());
+        CURRENT.set(measurement);
+        return measurement;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Measurement measurement = CURRENT.get();
+        if (measurement != null) {
+            measurement.record(sql);
+        }
+        return sql;
+    }
+
+    public static class Measurement implements AutoCloseable {
+        private final Measurement outer;
+        private final Map<String, Integer> statements = new LinkedHashMap<>();
+        private int count;
+
+        private Measurement(Measurement outer) {
+            this.outer = outer;
+        }
+
+        private void record(String sql) {
+            count++;
+            statements.merge(sql, 1, Integer::sum);
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        /**
+         * Выполненный SQL и сколько раз выполнялся каждый в порядке первого выполнения.
+         */
+        public Map<String, Integer> getStatements() {
+            return Collections.unmodifiableMap(statements);
+        }
+
+        @Override
+        public void close() {
+            if (outer != null) {
+                CURRENT.set(outer);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.threads;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Модель потоков обработки запросов: shareit.threads.mode=platform (пул Tomcat, по умолчанию) или virtual.
+ *
+ * <p>В режиме virtual каждый запрос идёт в своём виртуальном потоке, и ожидание JDBC не держит поток ОС.
+ * server.tomcat.threads.max тогда не действует: число одновременных запросов ограничивают
+ * server.tomcat.max-connections, а обращений к базе — spring.datasource.hikari.maximum-pool-size.
+ * Если JVM не поддерживает виртуальные потоки, сервер не запускается: молча остаться на пуле Tomcat
+ * значило бы мерить и эксплуатировать не тот режим, который включён в настройках.
+ *
+ * <p>h2c (HTTP/2 без TLS, gateway.client.http2=true) в режиме virtual на Tomcat 9 под нагрузкой
+ * отвечает с задержками до таймаута, поэтому шлюз с таким сервером ходит по HTTP/1.1.
+ */
+@Slf4j
+@Configuration
+public class RequestThreadsConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.threads.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsCustomizer() {
+        return VirtualThreads.perTaskExecutor()
+                .<TomcatProtocolHandlerCustomizer<ProtocolHandler>>map(executor -> {
+                    log.info("Запросы обрабатываются в виртуальных потоках");
+                    return handler -> handler.setExecutor(executor);
+                })
+                .orElseThrow(() -> new IllegalStateException("shareit.threads.mode=virtual требует JVM 21 или новее, " +
+                        "сервер запущен на " + Runtime.version()));
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Доступ к виртуальным потокам без компиляции под JDK 21: сборка остаётся на Java 11,
+ * а executor создаётся через рефлексию, если JVM его поддерживает.
+ */
+public final class VirtualThreads {
+    private VirtualThreads() {
+    }
+
+    /**
+     * Executor, запускающий каждую задачу в новом виртуальном потоке, или пустой Optional,
+     * если JVM старше 21 или виртуальные потоки в ней доступны только как preview.
+     */
+    public static Optional<ExecutorService> perTaskExecutor() {
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return Optional.empty();
+        } catch (InvocationTargetException e) {
+            // на JDK 19–20 без --enable-preview метод есть, но бросает UnsupportedOperationException
+            if (e.getCause() instanceof UnsupportedOperationException) return Optional.empty();
+            throw new IllegalStateException("не удалось создать executor виртуальных потоков", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.user.dto;
+
+import lombok.Value;
+
+/**
+ * Неизменяемый снимок пользователя для кэша: в отличие от сущности его можно отдавать всем потокам сразу.
+ */
+@Value
+public class UserSnapshot {
+    Long id;
+    String email;
+    String name;
+    Long version;
+}
@@ -1,10 +1,39 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.cache.CacheConfig;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
+import java.util.Optional;
+
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    String SNAPSHOT_QUERY = "select new ru.practicum.shareit.user.dto.UserSnapshot(u.id, u.email, u.name, u.version) " +
+            "from User u where u.id = ?1";
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.USER_EXISTS, unless = "!#result")
+    boolean existsById(Long userId);
+
+    @Cacheable(cacheNames = CacheConfig.USERS)
+    @Query(SNAPSHOT_QUERY)
+    Optional<UserSnapshot> findSnapshotById(long userId);
+
+    /**
+     * Перечитывает снимок из базы и кладёт его в кэш поверх устаревшего.
+     */
+    @CachePut(cacheNames = CacheConfig.USERS)
+    @Query(SNAPSHOT_QUERY)
+    Optional<UserSnapshot> refreshSnapshotById(long userId);
 
+    /**
+     * Версия для ETag читается мимо кэша, чтобы ответ 304 не выдавался по устаревшей версии.
+     */
+    @Query("select u.version from User u where u.id = ?1")
+    Optional<Long> findVersionById(long userId);
 }
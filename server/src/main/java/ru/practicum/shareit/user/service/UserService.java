@@ -4,12 +4,15 @@ import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface UserService {
     List<UserDto> getAllUsers();
 
     UserDto getUserById(Long id);
 
+    Optional<String> getUserVersionTag(Long id);
+
     User getUser(Long id);
 
     UserDto createUser(UserDto userDto);
@@ -1,11 +1,17 @@
 package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
+import ru.practicum.shareit.cache.CacheConfig;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.retry.RetryOnVersionConflict;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -17,6 +23,7 @@ import java.util.Optional;
 @Transactional
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final OwnerBookingRepository ownerBookingRepository;
 
     @Override
     @Transactional(readOnly = true)
@@ -28,7 +35,23 @@ public class UserServiceImpl implements UserService {
     @Override
     @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
-        return MapperUtil.convertToUserDto(getUser(id));
+        return findCurrentSnapshot(id).map(MapperUtil::convertToUserDto).orElseThrow(() ->
+                new UserNotFoundException("пользователя с id " + id + " не существует"));
+    }
+
+    /**
+     * Устаревший снимок в кэше заменяется свежим: расхождение видно по версии пользователя в базе.
+     */
+    private Optional<UserSnapshot> findCurrentSnapshot(Long id) {
+        Optional<UserSnapshot> snapshot = userRepository.findSnapshotById(id);
+        if (snapshot.map(UserSnapshot::getVersion).equals(userRepository.findVersionById(id))) return snapshot;
+        return userRepository.refreshSnapshotById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<String> getUserVersionTag(Long id) {
+        return userRepository.findVersionById(id).map(String::valueOf);
     }
 
     @Override
@@ -40,6 +63,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#result.id")
     public UserDto createUser(UserDto userDto) {
         User newUser = MapperUtil.convertFromUserDto(userDto);
         return MapperUtil.convertToUserDto(userRepository.save(newUser));
@@ -47,18 +71,29 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId")
+    @RetryOnVersionConflict
     public UserDto updateUser(Long userId, UserDto userDto) {
         User user = updateUserFromDtoParam(userId, userDto);
         User updatedUser = userRepository.save(user);
+        ownerBookingRepository.updateBookerDetails(userId, updatedUser.getEmail(), updatedUser.getName());
         return MapperUtil.convertToUserDto(updatedUser);
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.USERS, CacheConfig.USER_EXISTS}, allEntries = true),
+            @CacheEvict(cacheNames = {CacheConfig.ITEMS, CacheConfig.ITEM_EXISTS}, allEntries = true)
+    })
     public void deleteAllUsers() {
         userRepository.deleteAll();
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = {CacheConfig.USERS, CacheConfig.USER_EXISTS}, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.ITEMS, CacheConfig.ITEM_EXISTS}, allEntries = true)
+    })
     public void deleteUserById(Long id) {
         userRepository.deleteById(id);
     }
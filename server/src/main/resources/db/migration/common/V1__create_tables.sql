@@ -1,9 +1,3 @@
-DROP TABLE IF EXISTS bookings;
-DROP TABLE IF EXISTS requests;
-DROP TABLE IF EXISTS comments;
-DROP TABLE IF EXISTS items;
-DROP TABLE IF EXISTS users;
-
 CREATE TABLE IF NOT EXISTS users (
   id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
   name VARCHAR(200) NOT NULL,
@@ -48,4 +42,4 @@ CREATE TABLE IF NOT EXISTS bookings (
   current_state VARCHAR(9) NOT NULL,
   items_owner_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
   CONSTRAINT pk_book PRIMARY KEY (id)
-);
\ No newline at end of file
+);
@@ -0,0 +1,23 @@
+-- bookings: проверка пересечений и последнее/следующее бронирование вещи
+CREATE INDEX IF NOT EXISTS idx_bookings_item_time ON bookings (item_id, time_from, time_to);
+CREATE INDEX IF NOT EXISTS idx_bookings_item_state_time ON bookings (item_id, current_state, time_from);
+
+-- bookings: списки бронирующего, новые сверху
+CREATE INDEX IF NOT EXISTS idx_bookings_user_time ON bookings (user_id, time_from DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_user_state_time ON bookings (user_id, current_state, time_from DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_user_item_end ON bookings (user_id, item_id, time_to);
+
+-- bookings: списки владельца вещей
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_time ON bookings (items_owner_id, time_from DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_state_time ON bookings (items_owner_id, current_state, time_from DESC);
+
+-- items: вещи владельца по порядку id и ответы на запросы
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id);
+
+-- requests: свои запросы и лента чужих, новые сверху
+CREATE INDEX IF NOT EXISTS idx_requests_author_created ON requests (author_id, created DESC);
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created DESC, id DESC);
+
+-- comments: отзывы к вещи
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created DESC);
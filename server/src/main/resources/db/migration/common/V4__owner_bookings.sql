@@ -0,0 +1,33 @@
+-- owner_bookings: денормализованная витрина бронирований владельца, ровно поля BookingDto без join'ов
+CREATE TABLE IF NOT EXISTS owner_bookings (
+  booking_id BIGINT NOT NULL REFERENCES bookings (id) ON DELETE CASCADE,
+  owner_id BIGINT NOT NULL,
+  item_id BIGINT NOT NULL,
+  item_name VARCHAR(300) NOT NULL,
+  item_description VARCHAR(500),
+  booker_id BIGINT NOT NULL,
+  booker_email VARCHAR(300) NOT NULL,
+  booker_name VARCHAR(200) NOT NULL,
+  time_from TIMESTAMP NOT NULL,
+  time_to TIMESTAMP NOT NULL,
+  current_state VARCHAR(9) NOT NULL,
+  CONSTRAINT pk_owner_book PRIMARY KEY (booking_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_owner_bookings_owner_time ON owner_bookings (owner_id, time_from DESC, booking_id DESC);
+CREATE INDEX IF NOT EXISTS idx_owner_bookings_owner_state_time ON owner_bookings (owner_id, current_state, time_from DESC);
+CREATE INDEX IF NOT EXISTS idx_owner_bookings_item ON owner_bookings (item_id);
+CREATE INDEX IF NOT EXISTS idx_owner_bookings_booker ON owner_bookings (booker_id);
+
+INSERT INTO owner_bookings (booking_id, owner_id, item_id, item_name, item_description, booker_id, booker_email,
+                            booker_name, time_from, time_to, current_state)
+SELECT b.id, b.items_owner_id, i.id, i.name, i.description, u.id, u.email, u.name, b.time_from, b.time_to,
+       b.current_state
+FROM bookings b
+JOIN items i ON i.id = b.item_id
+JOIN users u ON u.id = b.user_id
+WHERE b.items_owner_id IS NOT NULL;
+
+-- списки владельца читаются из owner_bookings, индексы bookings по items_owner_id больше не нужны
+DROP INDEX IF EXISTS idx_bookings_owner_time;
+DROP INDEX IF EXISTS idx_bookings_owner_state_time;
@@ -0,0 +1,5 @@
+-- версии строк для @Version: оптимистичные блокировки и ETag ответов на чтение
+ALTER TABLE users ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE items ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE requests ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE bookings ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
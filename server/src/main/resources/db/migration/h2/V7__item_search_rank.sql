@@ -0,0 +1,2 @@
+-- в H2 нет pg_trgm: ItemSearchRank сохраняет только главное правило, совпадение в названии идёт раньше
+CREATE ALIAS IF NOT EXISTS item_search_rank FOR 'ru.practicum.shareit.item.repository.ItemSearchRank.rank';
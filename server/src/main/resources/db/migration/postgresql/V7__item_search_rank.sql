@@ -0,0 +1,12 @@
+-- релевантность для поиска вещей: совпадения в названии идут раньше совпадений только в описании,
+-- внутри каждой группы выше та вещь, чей текст ближе к запросу по similarity из pg_trgm;
+-- similarity считается по одному полю, потому что на частых словах ранжируются десятки тысяч строк
+CREATE OR REPLACE FUNCTION item_search_rank(item_name VARCHAR, item_description VARCHAR, query VARCHAR)
+    RETURNS REAL
+    LANGUAGE SQL IMMUTABLE PARALLEL SAFE
+AS $$
+SELECT CASE
+           WHEN item_name LIKE '%' || query || '%' THEN 1 + similarity(query, item_name)
+           ELSE COALESCE(similarity(query, item_description), 0)
+       END
+$$;
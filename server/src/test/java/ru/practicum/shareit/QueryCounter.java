@@ -0,0 +1,61 @@
+package ru.practicum.shareit;
+
+import ru.practicum.shareit.sql.SqlStatementCounter;
+
+import javax.persistence.EntityManager;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Считает SQL, который выполняет вызов сервиса, через {@link SqlStatementCounter}. Перед замером изменения
+ * подготовки сбрасываются в базу, а контекст очищается, чтобы уже загруженные сущности не экономили запросы.
+ * Изменения самого вызова сбрасываются внутри замера: в тесте с @Transactional иначе они ушли бы в базу позже.
+ * Выборка id из последовательности не считается: она приходится на один вызов из 50 и зависит от порядка тестов.
+ */
+public final class QueryCounter {
+    private static final Pattern SEQUENCE_CALL = Pattern.compile("next value for|nextval\\(", Pattern.CASE_INSENSITIVE);
+
+    private QueryCounter() {
+    }
+
+    public static long countQueries(EntityManager entityManager, Runnable call) {
+        entityManager.flush();
+        entityManager.clear();
+        try (SqlStatementCounter.Measurement measurement = SqlStatementCounter.start()) {
+            call.run();
+            entityManager.flush();
+            return count(measurement);
+        }
+    }
+
+    /**
+     * Проверяет, что вызов выполнил ровно expected запросов; при расхождении выводит выполненный SQL.
+     */
+    public static <T> T assertQueryCount(EntityManager entityManager, long expected, Supplier<T> call) {
+        entityManager.flush();
+        entityManager.clear();
+        try (SqlStatementCounter.Measurement measurement = SqlStatementCounter.start()) {
+            T result = call.get();
+            entityManager.flush();
+            assertEquals(expected, count(measurement), () -> "выполненный SQL:\n" + format(measurement));
+            return result;
+        }
+    }
+
+    private static long count(SqlStatementCounter.Measurement measurement) {
+        return measurement.getStatements().entrySet().stream()
+                .filter(statement -> !SEQUENCE_CALL.matcher(statement.getKey()).find())
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+    }
+
+    private static String format(SqlStatementCounter.Measurement measurement) {
+        return measurement.getStatements().entrySet().stream()
+                .map((Map.Entry<String, Integer> statement) -> statement.getValue() + "x " + statement.getKey())
+                .collect(Collectors.joining("\n"));
+    }
+}
@@ -0,0 +1,203 @@
+package ru.practicum.shareit;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.greaterThan;
+
+/**
+ * Прогоняет запросы всех репозиториев на заполненной базе и проверяет через EXPLAIN,
+ * что ни один из них не читает таблицу целиком.
+ */
+@TestPropertySource(value = "classpath:application-test.properties", properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.QueryPlanTest$StatementRecorder"})
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class QueryPlanTest {
+    private static final Set<String> STATEMENTS = new LinkedHashSet<>();
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.\\w+\\.tableScan");
+    private static final int USERS = 200;
+    private static final int ITEMS = 2000;
+    private static final int BOOKINGS = 5000;
+    private static final int REQUESTS = 200;
+    private static final int COMMENTS = 2000;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final BookingRepository bookingRepository;
+    private final OwnerBookingRepository ownerBookingRepository;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository requestRepository;
+    private final CommentRepository commentRepository;
+
+    @Test
+    void repositoryQueries_useIndexes() throws SQLException {
+        seed();
+        STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> runRepositoryQueries());
+
+        List<String> scans = new ArrayList<>();
+        for (String sql : STATEMENTS) {
+            String plan = explain(sql);
+            if (TABLE_SCAN.matcher(plan).find()) scans.add(sql + "\n" + plan);
+        }
+
+        assertThat(STATEMENTS.size(), greaterThan(20));
+        assertThat(scans, empty());
+    }
+
+    private void runRepositoryQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest newest = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start", "id"));
+        PageRequest page = PageRequest.of(0, 20);
+
+        bookingRepository.findByUserId(1, newest);
+        bookingRepository.findByUserIdAfterCursor(1, now, Long.MAX_VALUE, page);
+        bookingRepository.findBookingsByUserIdAndStartAfter(1, now, newest);
+        bookingRepository.findByUserIdAndEndBefore(1, now, newest);
+        bookingRepository.findByUserIdAndStartBeforeAndEndAfterOrderByStartAsc(1, now, now, page);
+        bookingRepository.findByUserIdAndState(1, State.WAITING, newest);
+        bookingRepository.findById(1L);
+        bookingRepository.existsByItemIdAndStateNotAndStartBeforeAndEndAfter(1, State.REJECTED, now, now);
+        bookingRepository.findByItemIdAndLastBooking(1);
+        bookingRepository.findByItemIdAndNextBooking(1);
+        bookingRepository.findAllByItemIdAndLastBooking(Set.of(1L, 2L));
+        bookingRepository.findAllByItemIdAndNextBooking(Set.of(1L, 2L));
+        bookingRepository.existsByUserIdAndItemIdAndEndBefore(1, 1, now);
+
+        PageRequest ownerNewest = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start", "bookingId"));
+        ownerBookingRepository.findByOwnerId(1, ownerNewest);
+        ownerBookingRepository.findByOwnerIdAfterCursor(1, now, Long.MAX_VALUE, page);
+        ownerBookingRepository.findByOwnerIdAndStartAfter(1, now, ownerNewest);
+        ownerBookingRepository.findByOwnerIdAndEndBefore(1, now, ownerNewest);
+        ownerBookingRepository.findByOwnerIdAndStartBeforeAndEndAfter(1, now, now, ownerNewest);
+        ownerBookingRepository.findByOwnerIdAndState(1, State.WAITING, ownerNewest);
+        ownerBookingRepository.updateState(1, State.WAITING);
+        ownerBookingRepository.updateItemDetails(1, "вещь 1", "описание 1");
+        ownerBookingRepository.updateBookerDetails(1, "user1@plans.test", "user 1");
+        ownerBookingRepository.deleteByBookingIdIn(List.of(1L));
+        ownerBookingRepository.insertFromBookings(List.of(1L));
+
+        itemRepository.findByIdAndOwnerId(1, 1);
+        itemRepository.findLockedById(1);
+        itemRepository.findByOwnerId(1, PageRequest.of(0, 20, Sort.by("id")));
+        itemRepository.findByOwnerIdAndIdGreaterThanOrderByIdAsc(1, 0, page);
+        itemRepository.findAllByRequestIdIn(Set.of(1L, 2L));
+        itemRepository.findByRequestId(1);
+
+        requestRepository.findByAuthorIdOrderByCreatedDesc(1);
+        requestRepository.findByAuthorIdIsNot(1, PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "created", "id")));
+        requestRepository.findByAuthorIdIsNotAfterCursor(1, now, Long.MAX_VALUE, page);
+
+        commentRepository.findByItemIdOrderByCreatedDesc(1);
+        commentRepository.findByItemIdIn(Set.of(1L, 2L));
+    }
+
+    private String explain(String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            ParameterMetaData parameters = statement.getParameterMetaData();
+            for (int i = 1; i <= parameters.getParameterCount(); i++) {
+                statement.setNull(i, parameters.getParameterType(i));
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    /**
+     * id задаются явно: последовательности выдают их с шагом 50, а ссылки между таблицами считаются от 1 подряд.
+     */
+    private void seed() {
+        Timestamp base = Timestamp.valueOf(LocalDateTime.now().minusDays(BOOKINGS / 2));
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 1; i <= USERS; i++) users.add(new Object[]{i, "user " + i, "user" + i + "@plans.test"});
+        jdbcTemplate.batchUpdate("insert into users (id, name, email) values (?, ?, ?)", users);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 1; i <= REQUESTS; i++) {
+            requests.add(new Object[]{i, i % USERS + 1, "запрос " + i, new Timestamp(base.getTime() + i * 60_000L)});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (id, author_id, description, created) values (?, ?, ?, ?)",
+                requests);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 1; i <= ITEMS; i++) {
+            items.add(new Object[]{i, "вещь " + i, "описание " + i, true, i % USERS + 1, i % 10 == 0 ? i / 10 : null});
+        }
+        jdbcTemplate.batchUpdate("insert into items (id, name, description, available, owner_id, request_id) " +
+                "values (?, ?, ?, ?, ?, ?)", items);
+
+        List<Object[]> bookings = new ArrayList<>();
+        for (int i = 1; i <= BOOKINGS; i++) {
+            int item = i % ITEMS + 1;
+            Timestamp start = new Timestamp(base.getTime() + i * 86_400_000L);
+            bookings.add(new Object[]{i, (item + 1) % USERS + 1, item, start,
+                    new Timestamp(start.getTime() + 3_600_000L),
+                    State.values()[i % 4].name(), item % USERS + 1});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (id, user_id, item_id, time_from, time_to, current_state, " +
+                "items_owner_id) values (?, ?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.update("insert into owner_bookings (booking_id, owner_id, item_id, item_name, item_description, " +
+                "booker_id, booker_email, booker_name, time_from, time_to, current_state) " +
+                "select b.id, b.items_owner_id, i.id, i.name, i.description, u.id, u.email, u.name, " +
+                "b.time_from, b.time_to, b.current_state " +
+                "from bookings as b join items as i on i.id = b.item_id join users as u on u.id = b.user_id");
+
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 1; i <= COMMENTS; i++) {
+            comments.add(new Object[]{i, i % USERS + 1, i % ITEMS + 1, "отзыв " + i,
+                    new Timestamp(base.getTime() + i)});
+        }
+        jdbcTemplate.batchUpdate("insert into comments (id, author_id, item_id, text, created) values (?, ?, ?, ?, ?)",
+                comments);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    public static class StatementRecorder implements StatementInspector {
+        @Override
+        public String inspect(String sql) {
+            if (sql.toLowerCase().contains(" where ")) {
+                synchronized (STATEMENTS) {
+                    STATEMENTS.add(sql);
+                }
+            }
+            return sql;
+        }
+    }
+}
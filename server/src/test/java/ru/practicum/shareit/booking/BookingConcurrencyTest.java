@@ -0,0 +1,170 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.AvailableStatusException;
+import ru.practicum.shareit.exceptions.ParamValidationException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@TestPropertySource("classpath:application-test.properties")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingConcurrencyTest {
+    private static final int ITEMS = 4;
+    private static final int ATTEMPTS = 2000;
+    private static final int THREADS = 8;
+    private final BookingService bookingService;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private User booker;
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner@stress.test")
+                .build());
+        booker = userRepository.save(User.builder()
+                .name("Booker")
+                .email("booker@stress.test")
+                .build());
+        items = new ArrayList<>();
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(itemRepository.save(Item.builder()
+                    .name("Дрель " + i)
+                    .description("популярная дрель")
+                    .available(true)
+                    .owner(owner)
+                    .build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void confirmationBooking_inParallelForSameBooking_appliesOnce() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        long bookingId = bookingService.createBooking(booker.getId(), BookingCreationDto.builder()
+                .itemId(items.get(0).getId())
+                .start(start)
+                .end(start.plusHours(2))
+                .build()).getId();
+        long ownerId = items.get(0).getOwner().getId();
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < THREADS * 4; i++) {
+            boolean approved = i % 2 == 0;
+            attempts.add(() -> {
+                try {
+                    bookingService.confirmationBooking(ownerId, bookingId, approved);
+                    return true;
+                } catch (AvailableStatusException e) {
+                    return false;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long applied = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                if (result.get()) applied++;
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        assertEquals(1, applied);
+        Booking booking = bookingRepository.findById(bookingId).orElseThrow();
+        assertNotEquals(State.WAITING, booking.getState());
+        assertEquals(1L, booking.getVersion());
+    }
+
+    @Test
+    void createBooking_inParallelForSameItems_neverOverlaps() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).withNano(0);
+        Random random = new Random(42);
+        List<Callable<Boolean>> attempts = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            long itemId = items.get(random.nextInt(ITEMS)).getId();
+            LocalDateTime start = base.plusHours(random.nextInt(24 * 30));
+            BookingCreationDto dto = BookingCreationDto.builder()
+                    .itemId(itemId)
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(48)))
+                    .build();
+            attempts.add(() -> {
+                try {
+                    bookingService.createBooking(booker.getId(), dto);
+                    return true;
+                } catch (ParamValidationException e) {
+                    return false;
+                }
+            });
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long accepted = 0;
+        try {
+            for (Future<Boolean> result : executor.invokeAll(attempts)) {
+                if (result.get()) accepted++;
+            }
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+        }
+
+        List<Booking> saved = bookingRepository.findAll();
+        assertEquals(accepted, saved.size());
+        assertTrue(accepted > 0);
+        for (Item item : items) {
+            List<Booking> itemBookings = saved.stream()
+                    .filter(b -> b.getItem().getId().equals(item.getId()))
+                    .sorted(Comparator.comparing(Booking::getStart))
+                    .collect(Collectors.toList());
+            for (int i = 1; i < itemBookings.size(); i++) {
+                assertFalse(itemBookings.get(i).getStart().isBefore(itemBookings.get(i - 1).getEnd()),
+                        "пересечение бронирований " + itemBookings.get(i - 1).getId()
+                                + " и " + itemBookings.get(i).getId());
+            }
+        }
+    }
+}
@@ -13,9 +13,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.State;
+import ru.practicum.shareit.booking.service.BookingBatchEntry;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.ParamValidationException;
 import ru.practicum.shareit.item.dto.ItemForBookingDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
@@ -106,6 +110,29 @@ public class BookingControllerTest {
                     .andExpect(jsonPath("$.end", is(List.of(2023, 12, 2, 16, 5))))
                     .andExpect(jsonPath("$.status", is(bookingDto1.getStatus().name())));
         }
+
+        @Test
+        void createBookings() throws Exception {
+            when(bookingService.createBookings(5L, List.of(creationBooking, creationBooking)))
+                    .thenReturn(List.of(BookingBatchEntry.created(bookingDto1),
+                            BookingBatchEntry.rejected(
+                                    new ParamValidationException("данное время для бронирования недоступно"))));
+
+            mvc.perform(post("/bookings/batch")
+                            .header("X-Sharer-User-Id", 5L)
+                            .content(mapper.writeValueAsString(List.of(creationBooking, creationBooking)))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status", is(200)))
+                    .andExpect(jsonPath("$[0].booking.id", is(bookingDto1.getId()), Long.class))
+                    .andExpect(jsonPath("$[0].error").doesNotExist())
+                    .andExpect(jsonPath("$[1].status", is(409)))
+                    .andExpect(jsonPath("$[1].booking").doesNotExist())
+                    .andExpect(jsonPath("$[1].error", is("Ошибка при валидации")))
+                    .andExpect(jsonPath("$[1].errorMessage", is("данное время для бронирования недоступно")));
+        }
     }
 
     @Nested
@@ -128,6 +155,28 @@ public class BookingControllerTest {
                     .andExpect(jsonPath("$.booker.id", is(bookingDto1.getBooker().getId()), Long.class))
                     .andExpect(jsonPath("$.status", is(bookingDto1.getStatus().name())));
         }
+
+        @Test
+        void confirmationBookings() throws Exception {
+            List<BookingDecisionDto> decisions = List.of(new BookingDecisionDto(1L, true),
+                    new BookingDecisionDto(2L, false));
+            when(bookingService.confirmationBookings(5L, decisions))
+                    .thenReturn(List.of(BookingBatchEntry.created(bookingDto1),
+                            BookingBatchEntry.rejected(new BookingNotFoundException(
+                                    "пользователь 5 не является владельцем вещи"))));
+
+            mvc.perform(patch("/bookings")
+                            .header("X-Sharer-User-Id", 5L)
+                            .content(mapper.writeValueAsString(decisions))
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .characterEncoding(StandardCharsets.UTF_8)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].status", is(200)))
+                    .andExpect(jsonPath("$[0].booking.id", is(bookingDto1.getId()), Long.class))
+                    .andExpect(jsonPath("$[1].status", is(404)))
+                    .andExpect(jsonPath("$[1].error", is("Ошибка при поиске бронирования")));
+        }
     }
 
     @Nested
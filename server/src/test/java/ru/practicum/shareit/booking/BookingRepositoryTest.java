@@ -14,6 +14,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.time.LocalDateTime;
@@ -166,4 +167,57 @@ public class BookingRepositoryTest {
         assertTrue(nextList.contains(b2));
         assertTrue(nextList.contains(b4));
     }
+
+    @Test
+    void findAllByItemIdAndLastAndNextBookings_whenItemsShareTimestamps() {
+        User ow = em.persist(owner);
+        User us = em.persist(user);
+        item1.setOwner(ow);
+        item2.setOwner(ow);
+        Item i1 = em.persist(item1);
+        Item i2 = em.persist(item2);
+        booking1.setUser(us);
+        booking1.setItem(i1);
+        booking1.setItemOwnerId(ow.getId());
+        booking2.setUser(us);
+        booking2.setItem(i1);
+        booking2.setItemOwnerId(ow.getId());
+        Booking b1 = em.persist(booking1);
+        Booking b2 = em.persist(booking2);
+        Booking olderOfSecondItem = em.persist(Booking.builder()
+                .item(i2)
+                .user(us)
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .state(State.APPROVED)
+                .itemOwnerId(ow.getId())
+                .build());
+        Booking lastOfSecondItem = em.persist(Booking.builder()
+                .item(i2)
+                .user(us)
+                .start(booking1.getStart().plusDays(1))
+                .end(booking1.getStart().plusDays(1).plusHours(1))
+                .state(State.APPROVED)
+                .itemOwnerId(ow.getId())
+                .build());
+        em.persist(Booking.builder()
+                .item(i2)
+                .user(us)
+                .start(booking2.getStart())
+                .end(booking2.getEnd())
+                .state(State.REJECTED)
+                .itemOwnerId(ow.getId())
+                .build());
+
+        List<Booking> lastList = repository.findAllByItemIdAndLastBooking(Set.of(i1.getId(), i2.getId()));
+
+        List<Booking> nextList = repository.findAllByItemIdAndNextBooking(Set.of(i1.getId()));
+
+        assertEquals(2, lastList.size());
+        assertTrue(lastList.contains(b1));
+        assertTrue(lastList.contains(lastOfSecondItem));
+        assertFalse(lastList.contains(olderOfSecondItem));
+
+        assertEquals(List.of(b2), nextList);
+    }
 }
@@ -5,23 +5,47 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCreationDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
+import ru.practicum.shareit.booking.service.BookingBatchEntry;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.OwnerBookingConsistencyChecker;
+import ru.practicum.shareit.exceptions.AvailableStatusException;
+import ru.practicum.shareit.exceptions.BookingDateException;
+import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.exceptions.PaginationException;
+import ru.practicum.shareit.exceptions.ParamValidationException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.PageCursor;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
 
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.QueryCounter.assertQueryCount;
+import static ru.practicum.shareit.QueryCounter.countQueries;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -33,8 +57,13 @@ import java.util.List;
 public class BookingServiceIntegrationTest {
     private final BookingService bookingService;
     private final BookingRepository bookingRepository;
+    private final OwnerBookingRepository ownerBookingRepository;
+    private final OwnerBookingConsistencyChecker ownerBookingChecker;
+    private final ItemService itemService;
+    private final UserService userService;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
     private User owner;
     private User user;
     private Item item1;
@@ -46,6 +75,7 @@ public class BookingServiceIntegrationTest {
 
     @BeforeEach
     void setUp() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
         owner = User.builder()
                 .name("John")
                 .email("john@example.com")
@@ -73,8 +103,8 @@ public class BookingServiceIntegrationTest {
         booking1 = Booking.builder()
                 .item(item1)
                 .user(user)
-                .start(LocalDateTime.now().plusDays(2))
-                .end(LocalDateTime.now().plusDays(3))
+                .start(now.plusDays(2))
+                .end(now.plusDays(3))
                 .state(State.WAITING)
                 .itemOwnerId(owner.getId())
                 .build();
@@ -82,8 +112,8 @@ public class BookingServiceIntegrationTest {
         booking2 = Booking.builder()
                 .item(item1)
                 .user(user)
-                .start(LocalDateTime.now().minusHours(5))
-                .end(LocalDateTime.now().minusHours(3))
+                .start(now.minusHours(5))
+                .end(now.minusHours(3))
                 .state(State.WAITING)
                 .itemOwnerId(owner.getId())
                 .build();
@@ -91,8 +121,8 @@ public class BookingServiceIntegrationTest {
         booking3 = Booking.builder()
                 .item(item2)
                 .user(user)
-                .start(LocalDateTime.now().minusDays(12))
-                .end(LocalDateTime.now().minusDays(8))
+                .start(now.minusDays(12))
+                .end(now.minusDays(8))
                 .state(State.WAITING)
                 .itemOwnerId(owner.getId())
                 .build();
@@ -100,8 +130,8 @@ public class BookingServiceIntegrationTest {
         booking4 = Booking.builder()
                 .item(item2)
                 .user(user)
-                .start(LocalDateTime.now().plusHours(2))
-                .end(LocalDateTime.now().plusHours(3))
+                .start(now.plusHours(2))
+                .end(now.plusHours(3))
                 .state(State.WAITING)
                 .itemOwnerId(owner.getId())
                 .build();
@@ -192,9 +222,333 @@ public class BookingServiceIntegrationTest {
 
         List<BookingDto> bookingList = MapperUtil.convertList(List.of(newBook1, newBook4), MapperUtil::convertToBookingDto);
         bookingList.sort(Comparator.comparing(BookingDto::getStart).reversed());
+        syncOwnerBookings();
 
         List<BookingDto> result = bookingService.getAllBookingsByOwnerId(newOwner.getId(), "FUTURE", 0, 10);
 
         assertThat(bookingList, equalTo(result));
     }
+
+    @Test
+    void createBooking_withPartialTimeIntersection() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        booking1.setItem(newItem1);
+        booking1.setUser(newUser);
+        booking1.setItemOwnerId(newOwner.getId());
+        bookingRepository.save(booking1);
+        BookingCreationDto overlapping = BookingCreationDto.builder()
+                .itemId(newItem1.getId())
+                .start(booking1.getStart().minusHours(1))
+                .end(booking1.getStart().plusHours(1))
+                .build();
+
+        assertThatThrownBy(() -> bookingService.createBooking(newUser.getId(), overlapping))
+                .isInstanceOf(ParamValidationException.class)
+                .hasMessageContaining("данное время для бронирования недоступно");
+    }
+
+    @Test
+    void createBooking_whenIntersectingBookingIsRejected() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        booking1.setItem(newItem1);
+        booking1.setUser(newUser);
+        booking1.setItemOwnerId(newOwner.getId());
+        booking1.setState(State.REJECTED);
+        bookingRepository.save(booking1);
+        BookingCreationDto sameTime = BookingCreationDto.builder()
+                .itemId(newItem1.getId())
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .build();
+
+        BookingDto result = bookingService.createBooking(newUser.getId(), sameTime);
+
+        assertThat(result.getStatus(), equalTo(State.WAITING));
+    }
+
+    @Test
+    void getAllBookingsByOwnerId_withCursor() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        item2.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        Item newItem2 = itemRepository.save(item2);
+        for (Booking booking : List.of(booking1, booking2, booking3, booking4)) {
+            booking.setItem(booking == booking1 || booking == booking2 ? newItem1 : newItem2);
+            booking.setUser(newUser);
+            booking.setItemOwnerId(newOwner.getId());
+            booking.setStart(booking.getStart().withNano(0));
+            booking.setEnd(booking.getEnd().withNano(0));
+            bookingRepository.save(booking);
+        }
+        List<BookingDto> all = MapperUtil.convertList(List.of(booking1, booking4, booking2, booking3),
+                MapperUtil::convertToBookingDto);
+        syncOwnerBookings();
+
+        List<BookingDto> firstPage = bookingService.getAllBookingsByOwnerId(newOwner.getId(), "ALL", 0, 3);
+        BookingDto last = firstPage.get(firstPage.size() - 1);
+        List<BookingDto> secondPage = bookingService.getAllBookingsByOwnerId(newOwner.getId(), "ALL",
+                PageCursor.of(last.getStart(), last.getId()).encode(), 3);
+
+        assertThat(firstPage, equalTo(all.subList(0, 3)));
+        assertThat(secondPage, equalTo(all.subList(3, 4)));
+        assertThatThrownBy(() -> bookingService.getAllBookingsByOwnerId(newOwner.getId(), "WAITING",
+                PageCursor.of(last.getStart(), last.getId()).encode(), 3))
+                .isInstanceOf(PaginationException.class);
+    }
+
+    @Test
+    void getAllBookingsByOwnerId_loadsItemsAndBookersWithPageQuery() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        for (int i = 0; i < 20; i++) {
+            User booker = userRepository.save(User.builder()
+                    .name("Booker " + i)
+                    .email("booker" + i + "@example.com")
+                    .build());
+            Item item = itemRepository.save(Item.builder()
+                    .name("Мяч " + i)
+                    .description("классный мяч")
+                    .available(true)
+                    .owner(newOwner)
+                    .build());
+            for (User bookedBy : List.of(booker, newUser)) {
+                bookingRepository.save(Booking.builder()
+                        .item(item)
+                        .user(bookedBy)
+                        .start(LocalDateTime.now().plusDays(i + 1))
+                        .end(LocalDateTime.now().plusDays(i + 2))
+                        .state(State.WAITING)
+                        .itemOwnerId(newOwner.getId())
+                        .build());
+            }
+        }
+        syncOwnerBookings();
+
+        bookingService.getAllBookingsByOwnerId(newOwner.getId(), "ALL", 0, 1);
+        bookingService.getAllBookingsByUserId(newUser.getId(), "ALL", 0, 1);
+        long smallPage = countQueries(entityManager, () -> bookingService.getAllBookingsByOwnerId(newOwner.getId(), "ALL", 0, 2));
+        long fullPage = countQueries(entityManager, () -> bookingService.getAllBookingsByOwnerId(newOwner.getId(), "ALL", 0, 20));
+        long userPage = countQueries(entityManager, () -> bookingService.getAllBookingsByUserId(newUser.getId(), "ALL", 0, 20));
+
+        assertThat(fullPage, equalTo(smallPage));
+        assertThat(fullPage, equalTo(1L));
+        assertThat(userPage, equalTo(1L));
+    }
+
+    @Test
+    void ownerBookings_followBookingItemAndBookerChanges() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        BookingDto created = bookingService.createBooking(newUser.getId(), BookingCreationDto.builder()
+                .itemId(newItem1.getId())
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .build());
+        bookingService.confirmationBooking(newOwner.getId(), created.getId(), true);
+        itemService.updateItem(ItemDto.builder().name("Волейбольный мяч").build(), newOwner.getId(), newItem1.getId());
+        userService.updateUser(newUser.getId(), UserDto.builder().name("Pyotr").build());
+
+        assertThat(ownerBookingChecker.check(), equalTo(0));
+
+        BookingDto expected = bookingService.getBookingById(newOwner.getId(), created.getId());
+        List<BookingDto> result = bookingService.getAllBookingsByOwnerId(newOwner.getId(), "ALL", 0, 10);
+
+        assertThat(result, equalTo(List.of(expected)));
+        assertThat(result.get(0).getStatus(), equalTo(State.APPROVED));
+        assertThat(result.get(0).getItem().getName(), equalTo("Волейбольный мяч"));
+        assertThat(result.get(0).getBooker().getName(), equalTo("Pyotr"));
+    }
+
+    @Test
+    void ownerBookingChecker_repairsDivergedRows() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        BookingDto created = bookingService.createBooking(newUser.getId(), BookingCreationDto.builder()
+                .itemId(newItem1.getId())
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .build());
+        ownerBookingRepository.updateState(created.getId(), State.REJECTED);
+        ownerBookingRepository.updateBookerDetails(newUser.getId(), "stale@example.com", "Stale");
+
+        assertThat(ownerBookingChecker.check(), equalTo(1));
+        assertThat(ownerBookingChecker.check(), equalTo(0));
+        assertThat(bookingService.getAllBookingsByOwnerId(newOwner.getId(), "ALL", 0, 10),
+                equalTo(List.of(bookingService.getBookingById(newOwner.getId(), created.getId()))));
+    }
+
+    @Test
+    void getBookingVersionTag_onlyForParticipantsAndChangesOnConfirmation() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        User stranger = userRepository.save(User.builder().name("Ivan").email("ivan@example.com").build());
+        item1.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        BookingDto created = bookingService.createBooking(newUser.getId(), BookingCreationDto.builder()
+                .itemId(newItem1.getId())
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .build());
+        String waiting = bookingService.getBookingVersionTag(newUser.getId(), created.getId()).orElseThrow();
+
+        assertThat(bookingService.getBookingVersionTag(newOwner.getId(), created.getId()).orElseThrow(),
+                equalTo(waiting));
+        assertThat(bookingService.getBookingVersionTag(stranger.getId(), created.getId()).isPresent(),
+                equalTo(false));
+
+        bookingService.confirmationBooking(newOwner.getId(), created.getId(), true);
+        entityManager.flush();
+
+        assertThat(bookingService.getBookingVersionTag(newUser.getId(), created.getId()).orElseThrow(),
+                not(equalTo(waiting)));
+    }
+
+    @Test
+    void createBookings_insertsValidEntriesAndReportsRejectedOnes() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        item2.setOwner(newOwner);
+        item2.setAvailable(false);
+        Item newItem1 = itemRepository.save(item1);
+        Item newItem2 = itemRepository.save(item2);
+        booking1.setItem(newItem1);
+        booking1.setUser(newUser);
+        booking1.setItemOwnerId(newOwner.getId());
+        bookingRepository.save(booking1);
+        LocalDateTime free = booking1.getEnd().plusDays(1);
+        List<BookingCreationDto> batch = List.of(
+                BookingCreationDto.builder().itemId(newItem1.getId()).start(free).end(free.plusDays(1)).build(),
+                BookingCreationDto.builder().itemId(newItem1.getId())
+                        .start(booking1.getStart()).end(booking1.getEnd()).build(),
+                BookingCreationDto.builder().itemId(newItem1.getId())
+                        .start(free.plusHours(12)).end(free.plusDays(2)).build(),
+                BookingCreationDto.builder().itemId(newItem2.getId()).start(free).end(free.plusDays(1)).build(),
+                BookingCreationDto.builder().itemId(999L).start(free).end(free.plusDays(1)).build(),
+                BookingCreationDto.builder().itemId(newItem1.getId())
+                        .start(free.plusDays(3)).end(free.plusDays(2)).build());
+
+        List<BookingBatchEntry> result = bookingService.createBookings(newUser.getId(), batch);
+
+        assertThat(result.get(0).getFailure(), equalTo(null));
+        assertThat(result.get(1).getFailure().getClass(), equalTo(ParamValidationException.class));
+        assertThat(result.get(2).getFailure().getClass(), equalTo(ParamValidationException.class));
+        assertThat(result.get(3).getFailure().getClass(), equalTo(AvailableStatusException.class));
+        assertThat(result.get(4).getFailure().getClass(), equalTo(ItemNotFoundException.class));
+        assertThat(result.get(5).getFailure().getClass(), equalTo(BookingDateException.class));
+        BookingDto created = result.get(0).getBooking();
+        assertThat(created.getStatus(), equalTo(State.WAITING));
+        assertThat(bookingService.getBookingById(newUser.getId(), created.getId()), equalTo(created));
+        assertThat(bookingService.getAllBookingsByOwnerId(newOwner.getId(), "FUTURE", 0, 10).stream()
+                .anyMatch(b -> b.getId().equals(created.getId())), equalTo(true));
+    }
+
+    @Test
+    void createBookings_sendsInsertsInJdbcBatches() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        List<BookingCreationDto> batch = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            LocalDateTime start = booking1.getStart().plusDays(2L * i);
+            batch.add(BookingCreationDto.builder().itemId(newItem1.getId()).start(start).end(start.plusDays(1)).build());
+        }
+
+        long queries = countQueries(entityManager, () -> bookingService.createBookings(newUser.getId(), batch));
+
+        // без пакетной вставки одних INSERT было бы 40
+        assertThat(queries, lessThanOrEqualTo(7L));
+        assertThat(bookingService.getAllBookingsByUserId(newUser.getId(), "ALL", 0, 50).size(), equalTo(40));
+    }
+
+    @Test
+    void queryCounts_forSingleBooking() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        BookingCreationDto creation = BookingCreationDto.builder()
+                .itemId(newItem1.getId())
+                .start(booking1.getStart())
+                .end(booking1.getEnd())
+                .build();
+
+        BookingDto created = assertQueryCount(entityManager, 5,
+                () -> bookingService.createBooking(newUser.getId(), creation));
+        BookingDto approved = assertQueryCount(entityManager, 3,
+                () -> bookingService.confirmationBooking(newOwner.getId(), created.getId(), true));
+        BookingDto found = assertQueryCount(entityManager, 2,
+                () -> bookingService.getBookingById(newUser.getId(), created.getId()));
+
+        assertThat(approved.getStatus(), equalTo(State.APPROVED));
+        assertThat(approved.getBooker().getEmail(), equalTo(newUser.getEmail()));
+        assertThat(approved.getItem().getName(), equalTo(newItem1.getName()));
+        assertThat(found.getBooker().getId(), equalTo(newUser.getId()));
+        assertThat(found.getItem().getId(), equalTo(newItem1.getId()));
+    }
+
+    @Test
+    void confirmationBookings_updatesAllInOneBatch() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item1.setOwner(newOwner);
+        item2.setOwner(newOwner);
+        Item newItem1 = itemRepository.save(item1);
+        Item newItem2 = itemRepository.save(item2);
+        List<BookingDto> created = MapperUtil.convertList(List.of(
+                BookingCreationDto.builder().itemId(newItem1.getId())
+                        .start(booking1.getStart()).end(booking1.getEnd()).build(),
+                BookingCreationDto.builder().itemId(newItem2.getId())
+                        .start(booking1.getStart()).end(booking1.getEnd()).build(),
+                BookingCreationDto.builder().itemId(newItem2.getId())
+                        .start(booking1.getEnd()).end(booking1.getEnd().plusDays(1)).build()),
+                dto -> bookingService.createBooking(newUser.getId(), dto));
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(created.get(0).getId(), true),
+                new BookingDecisionDto(created.get(1).getId(), false),
+                new BookingDecisionDto(created.get(2).getId(), true),
+                new BookingDecisionDto(created.get(0).getId(), false),
+                new BookingDecisionDto(999L, true));
+        List<List<BookingBatchEntry>> result = new ArrayList<>();
+
+        long queries = countQueries(entityManager, () -> result.add(bookingService.confirmationBookings(newOwner.getId(), decisions)));
+
+        // пользователь, бронирования, пакет UPDATE и по запросу в owner_bookings на APPROVED и REJECTED
+        assertThat(queries, equalTo(5L));
+        List<BookingBatchEntry> entries = result.get(0);
+        assertThat(entries.get(0).getBooking().getStatus(), equalTo(State.APPROVED));
+        assertThat(entries.get(1).getBooking().getStatus(), equalTo(State.REJECTED));
+        assertThat(entries.get(2).getBooking().getStatus(), equalTo(State.APPROVED));
+        assertThat(entries.get(3).getFailure().getClass(), equalTo(AvailableStatusException.class));
+        assertThat(entries.get(4).getFailure().getClass(), equalTo(BookingNotFoundException.class));
+        for (int i = 0; i < 3; i++) {
+            assertThat(entries.get(i).getBooking(),
+                    equalTo(bookingService.getBookingById(newOwner.getId(), created.get(i).getId())));
+        }
+        assertThat(bookingService.confirmationBookings(newUser.getId(),
+                        List.of(new BookingDecisionDto(created.get(0).getId(), true))).get(0).getFailure().getClass(),
+                equalTo(BookingNotFoundException.class));
+        assertThat(ownerBookingRepository.findByOwnerIdAndState(newOwner.getId(), State.APPROVED,
+                Pageable.unpaged()).size(), equalTo(2));
+        assertThat(bookingService.getAllBookingsByOwnerId(newOwner.getId(), "REJECTED", 0, 10).size(),
+                equalTo(1));
+    }
+
+    private void syncOwnerBookings() {
+        entityManager.flush();
+        ownerBookingChecker.check();
+    }
 }
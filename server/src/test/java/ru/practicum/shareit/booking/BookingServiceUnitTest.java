@@ -9,8 +9,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import ru.practicum.shareit.booking.dto.BookingCreationDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.OwnerBooking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
 import ru.practicum.shareit.exceptions.AvailableStatusException;
 import ru.practicum.shareit.exceptions.BookingNotFoundException;
@@ -26,7 +28,6 @@ import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +35,8 @@ import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,6 +50,9 @@ public class BookingServiceUnitTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private OwnerBookingRepository ownerBookingRepository;
+
     @InjectMocks
     private BookingServiceImpl bookingService;
 
@@ -128,11 +134,12 @@ public class BookingServiceUnitTest {
 
     @Test
     void createBooking_withCorrectData() {
-        when(bookingRepository.findByItemId(item1.getId()))
-                .thenReturn(new ArrayList<>());
+        when(bookingRepository.existsByItemIdAndStateNotAndStartBeforeAndEndAfter(item1.getId(), State.REJECTED,
+                creationB1.getEnd(), creationB1.getStart()))
+                .thenReturn(false);
         when(userRepository.findById(user2.getId()))
                 .thenReturn(Optional.of(user2));
-        when(itemRepository.findById(creationB1.getItemId()))
+        when(itemRepository.findLockedById(creationB1.getItemId()))
                 .thenReturn(Optional.of(item1));
         when(bookingRepository.save(MapperUtil.convertFromBookingCreationDto(creationB1, item1, user2)))
                 .thenReturn(booking1);
@@ -149,8 +156,13 @@ public class BookingServiceUnitTest {
 
     @Test
     void createBooking_withIncorrectTime() {
-        when(bookingRepository.findByItemId(item1.getId()))
-                .thenReturn(List.of(booking1));
+        when(userRepository.findById(user2.getId()))
+                .thenReturn(Optional.of(user2));
+        when(itemRepository.findLockedById(creationB1.getItemId()))
+                .thenReturn(Optional.of(item1));
+        when(bookingRepository.existsByItemIdAndStateNotAndStartBeforeAndEndAfter(item1.getId(), State.REJECTED,
+                creationB1.getEnd(), creationB1.getStart()))
+                .thenReturn(true);
 
         assertThatThrownBy(() -> bookingService.createBooking(user2.getId(), creationB1)).isInstanceOf(ParamValidationException.class)
                 .hasMessageContaining("данное время для бронирования недоступно");
@@ -158,8 +170,6 @@ public class BookingServiceUnitTest {
 
     @Test
     void createBooking_withIncorrectUser() {
-        when(bookingRepository.findByItemId(item1.getId()))
-                .thenReturn(new ArrayList<>());
         when(userRepository.findById(user2.getId()))
                 .thenReturn(Optional.empty());
 
@@ -169,22 +179,26 @@ public class BookingServiceUnitTest {
 
     @Test
     void confirmationBooking_withCorrectOwner() {
-        when(userRepository.existsById(user1.getId()))
-                .thenReturn(true);
+        when(bookingRepository.updateStateIfWaiting(booking1.getId(), user1.getId(), State.APPROVED))
+                .thenReturn(1);
         when(bookingRepository.findById(booking1.getId()))
-                .thenReturn(Optional.of(booking1));
-        when(bookingRepository.save(booking1))
-                .thenReturn(booking1);
+                .thenAnswer(invocation -> {
+                    booking1.setState(State.APPROVED);
+                    return Optional.of(booking1);
+                });
 
         BookingDto result = bookingService.confirmationBooking(user1.getId(), booking1.getId(), true);
 
         booking1Dto.setStatus(State.APPROVED);
 
         assertEquals(booking1Dto, result);
+        verify(ownerBookingRepository).updateState(booking1.getId(), State.APPROVED);
     }
 
     @Test
     void confirmationBooking_withIncorrectOwner() {
+        when(bookingRepository.updateStateIfWaiting(booking1.getId(), user1.getId(), State.APPROVED))
+                .thenReturn(0);
         when(userRepository.existsById(user1.getId()))
                 .thenReturn(false);
 
@@ -195,6 +209,8 @@ public class BookingServiceUnitTest {
 
     @Test
     void confirmationBooking_withIncorrectBookingId() {
+        when(bookingRepository.updateStateIfWaiting(booking1.getId(), user2.getId(), State.APPROVED))
+                .thenReturn(0);
         when(userRepository.existsById(user2.getId()))
                 .thenReturn(true);
         when(bookingRepository.findById(booking1.getId()))
@@ -207,6 +223,8 @@ public class BookingServiceUnitTest {
 
     @Test
     void confirmationBooking_withIncorrectStatus() {
+        when(bookingRepository.updateStateIfWaiting(booking1.getId(), user1.getId(), State.APPROVED))
+                .thenReturn(0);
         when(userRepository.existsById(user1.getId()))
                 .thenReturn(true);
         when(bookingRepository.findById(booking1.getId()))
@@ -216,6 +234,7 @@ public class BookingServiceUnitTest {
         assertThatThrownBy(() -> bookingService.confirmationBooking(user1.getId(), booking1.getId(), true))
                 .isInstanceOf(AvailableStatusException.class)
                 .hasMessageContaining("нельзя забронировать вещь со статусом " + booking1.getState());
+        verify(ownerBookingRepository, never()).updateState(anyLong(), any());
     }
 
     @Test
@@ -276,11 +295,11 @@ public class BookingServiceUnitTest {
 
     @Test
     void getAllBookingsByOwnerId_withStateWAITING() {
-        List<Booking> bookings = List.of(booking1, booking2);
+        List<OwnerBooking> bookings = List.of(toOwnerBooking(booking1), toOwnerBooking(booking2));
 
         when(userRepository.existsById(user1.getId()))
                 .thenReturn(true);
-        when(bookingRepository.findByItemOwnerIdAndState(anyLong(), any(), any()))
+        when(ownerBookingRepository.findByOwnerIdAndState(anyLong(), any(), any()))
                 .thenReturn(bookings);
 
         List<BookingDto> bookingsDto = List.of(booking1Dto, booking2Dto);
@@ -299,4 +318,20 @@ public class BookingServiceUnitTest {
                 .isInstanceOf(UnknownBookingStateException.class)
                 .hasMessageContaining("Unknown state: UNSUPPORTED_STATUS");
     }
+
+    private OwnerBooking toOwnerBooking(Booking booking) {
+        return OwnerBooking.builder()
+                .bookingId(booking.getId())
+                .ownerId(booking.getItemOwnerId())
+                .itemId(booking.getItem().getId())
+                .itemName(booking.getItem().getName())
+                .itemDescription(booking.getItem().getDescription())
+                .bookerId(booking.getUser().getId())
+                .bookerEmail(booking.getUser().getEmail())
+                .bookerName(booking.getUser().getName())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .state(booking.getState())
+                .build();
+    }
 }
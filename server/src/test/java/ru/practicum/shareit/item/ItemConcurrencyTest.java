@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.TestPropertySource;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@TestPropertySource("classpath:application-test.properties")
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class ItemConcurrencyTest {
+    private final ItemService itemService;
+    private final ItemRepository itemRepository;
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    @SpyBean
+    private OwnerBookingRepository ownerBookingRepository;
+    private User owner;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                .name("Owner")
+                .email("owner@retry.test")
+                .build());
+        item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("обычная дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reset(ownerBookingRepository);
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void updateItem_whenRowChangesBeforeCommit_retriesOnFreshRow() {
+        doAnswer(invocation -> {
+            changeDescriptionConcurrently("описание из другого запроса");
+            return 0;
+        }).doReturn(0).when(ownerBookingRepository).updateItemDetails(anyLong(), any(), any());
+
+        ItemDto result = itemService.updateItem(ItemDto.builder().name("Перфоратор").build(), owner.getId(),
+                item.getId());
+
+        assertEquals("Перфоратор", result.getName());
+        assertEquals("описание из другого запроса", result.getDescription());
+        assertEquals(2L, itemRepository.findById(item.getId()).orElseThrow().getVersion());
+        verify(ownerBookingRepository, times(2)).updateItemDetails(anyLong(), any(), any());
+    }
+
+    @Test
+    void updateItem_whenEveryAttemptConflicts_givesUpAfterThreeAttempts() {
+        doAnswer(invocation -> {
+            changeDescriptionConcurrently("описание из другого запроса");
+            return 0;
+        }).when(ownerBookingRepository).updateItemDetails(anyLong(), any(), any());
+
+        assertThatThrownBy(() -> itemService.updateItem(ItemDto.builder().name("Перфоратор").build(),
+                owner.getId(), item.getId()))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+        verify(ownerBookingRepository, times(3)).updateItemDetails(anyLong(), any(), any());
+        assertEquals("Дрель", itemRepository.findById(item.getId()).orElseThrow().getName());
+    }
+
+    /**
+     * Вызывается вместо обновления owner_bookings, то есть после чтения вещи и до коммита.
+     * Изменение из отдельного потока идёт своей транзакцией и коммитится до коммита проверяемого запроса.
+     */
+    private void changeDescriptionConcurrently(String description) {
+        CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                "update items set description = ?, version = version + 1 where id = ?", description, item.getId()))
+                .join();
+    }
+}
@@ -19,20 +19,26 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.PageCursor;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -184,6 +190,38 @@ public class ItemControllerTest {
                     .andExpect(jsonPath("$.owner", is(itemDto.getOwner()), Long.class));
         }
 
+        @Test
+        void getItemById_whenEtagMatches() throws Exception {
+            when(itemService.getItemVersionTag(1L, 5L))
+                    .thenReturn(Optional.of("3.1.7.2"));
+
+            mvc.perform(get("/items/{itemId}", 1L)
+                            .header("X-Sharer-User-Id", 5L)
+                            .header("If-None-Match", "\"3.1.7.2\"")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"3.1.7.2\""))
+                    .andExpect(content().string(""));
+
+            verify(itemService, never()).getItemById(anyLong(), anyLong());
+        }
+
+        @Test
+        void getItemById_whenEtagIsStale() throws Exception {
+            when(itemService.getItemVersionTag(1L, 5L))
+                    .thenReturn(Optional.of("4.1.7.2"));
+            when(itemService.getItemById(1L, 5L))
+                    .thenReturn(itemDto);
+
+            mvc.perform(get("/items/{itemId}", 1L)
+                            .header("X-Sharer-User-Id", 5L)
+                            .header("If-None-Match", "\"3.1.7.2\"")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("ETag", "\"4.1.7.2\""))
+                    .andExpect(jsonPath("$.id", is(itemDto.getId()), Long.class));
+        }
+
         @Test
         void getAllItemsByUserId() throws Exception {
             when(itemService.getAllItemsByOwnerId(anyLong(), anyInt(), anyInt()))
@@ -198,6 +236,31 @@ public class ItemControllerTest {
                     .andExpect(jsonPath("$.length()").value(2));
         }
 
+        @Test
+        void getAllItemsByUserId_withCursorAndWithoutFrom() throws Exception {
+            String cursor = PageCursor.of(1L).encode();
+            when(itemService.getAllItemsByOwnerId(5L, cursor, 1))
+                    .thenReturn(List.of(itemDto));
+
+            mvc.perform(get("/items?cursor={cursor}&size=1", cursor)
+                            .header("X-Sharer-User-Id", 5L)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(PageCursor.NEXT_CURSOR_HEADER, PageCursor.of(1L).encode()))
+                    .andExpect(jsonPath("$.length()").value(1));
+        }
+
+        @Test
+        void getAllItemsByUserId_withoutFromAndCursor() throws Exception {
+            mvc.perform(get("/items?size=2")
+                            .header("X-Sharer-User-Id", 5L)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errorMessage", is("нужно указать from или cursor")));
+
+            verify(itemService, never()).getAllItemsByOwnerId(anyLong(), anyInt(), anyInt());
+        }
+
         @Test
         void searchItemsByText() throws Exception {
             when(itemService.searchItemsByText(anyString(), anyInt(), anyInt()))
@@ -211,5 +274,20 @@ public class ItemControllerTest {
                     .andExpect(status().isOk())
                     .andExpect(jsonPath("$.length()").value(2));
         }
+
+        @Test
+        void searchItemsByText_whenEtagMatches() throws Exception {
+            when(itemService.getSearchVersionTag("text"))
+                    .thenReturn(Optional.of("2.14.5"));
+
+            mvc.perform(get("/items/search?from=5&size=2&text=text")
+                            .header("X-Sharer-User-Id", 5L)
+                            .header("If-None-Match", "\"2.14.5\"")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            verify(itemService, never()).searchItemsByText(anyString(), anyInt(), anyInt());
+        }
     }
 }
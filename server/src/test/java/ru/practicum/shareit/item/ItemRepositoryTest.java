@@ -124,4 +124,38 @@ public class ItemRepositoryTest {
         assertEquals(1, result.size());
         assertTrue(result.contains(i1));
     }
+
+    @Test
+    void findByNameOrDescriptionContaining_whenNameMatchingItemIsUnavailable() {
+        Pageable pageable = PageRequest.of(0, 5);
+        User own = em.persist(owner);
+        item1.setOwner(own);
+        item1.setAvailable(false);
+        item2.setOwner(own);
+        item3.setOwner(own);
+        em.persist(item1);
+        em.persist(item2);
+        em.persist(item3);
+
+        List<Item> result = repository.findByNameOrDescriptionContaining("БАСКЕТ", pageable);
+
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void findByNameOrDescriptionContaining_whenNameMatchesRankedFirst() {
+        Pageable pageable = PageRequest.of(0, 5);
+        User own = em.persist(owner);
+        item1.setOwner(own);
+        item1.setDescription("для игры в волейбол не подходит");
+        item2.setOwner(own);
+        item3.setOwner(own);
+        Item i1 = em.persist(item1);
+        Item i2 = em.persist(item2);
+        em.persist(item3);
+
+        List<Item> result = repository.findByNameOrDescriptionContaining("ВОЛЕЙБОЛ", pageable);
+
+        assertEquals(List.of(i2, i1), result);
+    }
 }
@@ -17,6 +17,7 @@ import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.PageCursor;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
@@ -24,8 +25,11 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static ru.practicum.shareit.QueryCounter.assertQueryCount;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -40,6 +44,7 @@ public class ItemServiceIntegrationTest {
     private final UserRepository userRepository;
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
+    private final EntityManager entityManager;
     private User owner;
     private User user;
     private Item item;
@@ -164,6 +169,55 @@ public class ItemServiceIntegrationTest {
         assertThat(result.getNextBooking(), nullValue());
     }
 
+    @Test
+    void getItemVersionTag_changesWithCommentsAndUpdates() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        item.setOwner(newOwner);
+        Item newItem = itemRepository.save(item);
+        String initial = itemService.getItemVersionTag(newItem.getId(), newUser.getId()).orElseThrow();
+
+        assertThat(itemService.getItemVersionTag(newItem.getId(), newUser.getId()).orElseThrow(), equalTo(initial));
+
+        comment.setItem(newItem);
+        comment.setAuthor(newUser);
+        commentRepository.save(comment);
+        String withComment = itemService.getItemVersionTag(newItem.getId(), newUser.getId()).orElseThrow();
+
+        assertThat(withComment, not(equalTo(initial)));
+
+        itemService.updateItem(ItemDto.builder().name("Новый мяч").build(), newOwner.getId(), newItem.getId());
+        itemRepository.flush();
+        String updated = itemService.getItemVersionTag(newItem.getId(), newUser.getId()).orElseThrow();
+
+        assertThat(updated, not(equalTo(withComment)));
+        assertThat(itemService.getItemVersionTag(newItem.getId(), newOwner.getId()).orElseThrow(),
+                not(equalTo(updated)));
+        assertThat(itemService.getItemVersionTag(newItem.getId() + 100, newUser.getId()).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void getSearchVersionTag_changesWithMatchingItemsOnly() {
+        User newOwner = userRepository.save(owner);
+        item.setOwner(newOwner);
+        Item newItem = itemRepository.save(item);
+        item2.setOwner(newOwner);
+        Item other = itemRepository.save(item2);
+        String initial = assertQueryCount(entityManager, 1, () -> itemService.getSearchVersionTag("баскетбольный"))
+                .orElseThrow();
+
+        itemService.updateItem(ItemDto.builder().name("Футбольный мяч 2").build(), newOwner.getId(), other.getId());
+        itemRepository.flush();
+
+        assertThat(itemService.getSearchVersionTag("баскетбольный").orElseThrow(), equalTo(initial));
+
+        itemService.updateItem(ItemDto.builder().available(false).build(), newOwner.getId(), newItem.getId());
+        itemRepository.flush();
+
+        assertThat(itemService.getSearchVersionTag("баскетбольный").orElseThrow(), not(equalTo(initial)));
+        assertThat(itemService.getSearchVersionTag(" ").isPresent(), equalTo(false));
+    }
+
     @Test
     void getAllItemsByOwnerId() {
         User newOwner = userRepository.save(owner);
@@ -193,4 +247,58 @@ public class ItemServiceIntegrationTest {
                 MapperUtil.convertToBookingForItemDto(firstBooking), MapperUtil.convertList(List.of(newComment), MapperUtil::convertToCommentDto))));
         assertThat(result, hasItem(MapperUtil.convertToItemDto(newItem2)));
     }
+
+    @Test
+    void getAllItemsByOwnerId_withOffsetAndCursor() {
+        User newOwner = userRepository.save(owner);
+        item.setOwner(newOwner);
+        item2.setOwner(newOwner);
+        item3.setOwner(newOwner);
+        Item newItem = itemRepository.save(item);
+        Item newItem2 = itemRepository.save(item2);
+        Item newItem3 = itemRepository.save(item3);
+
+        List<ItemDto> fromOne = itemService.getAllItemsByOwnerId(newOwner.getId(), 1, 2);
+        List<ItemDto> firstPage = itemService.getAllItemsByOwnerId(newOwner.getId(), 0, 2);
+        List<ItemDto> secondPage = itemService.getAllItemsByOwnerId(newOwner.getId(),
+                PageCursor.of(firstPage.get(1).getId()).encode(), 2);
+
+        assertThat(fromOne, equalTo(List.of(MapperUtil.convertToItemDto(newItem2), MapperUtil.convertToItemDto(newItem3))));
+        assertThat(firstPage, equalTo(List.of(MapperUtil.convertToItemDto(newItem), MapperUtil.convertToItemDto(newItem2))));
+        assertThat(secondPage, equalTo(List.of(MapperUtil.convertToItemDto(newItem3))));
+    }
+
+    @Test
+    void queryCounts_doNotDependOnNumberOfItems() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        for (Item ownerItem : List.of(item, item2, item3)) {
+            ownerItem.setOwner(newOwner);
+            Item saved = itemRepository.save(ownerItem);
+            bookingRepository.save(Booking.builder().item(saved).user(newUser).state(State.APPROVED)
+                    .start(LocalDateTime.now().minusDays(2)).end(LocalDateTime.now().minusDays(1))
+                    .itemOwnerId(newOwner.getId()).build());
+            bookingRepository.save(Booking.builder().item(saved).user(newUser).state(State.APPROVED)
+                    .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2))
+                    .itemOwnerId(newOwner.getId()).build());
+            commentRepository.save(Comment.builder().item(saved).author(newUser).text("отличная вещь")
+                    .created(LocalDateTime.now()).build());
+        }
+
+        List<ItemDto> ownerItems = assertQueryCount(entityManager, 5,
+                () -> itemService.getAllItemsByOwnerId(newOwner.getId(), 0, 10));
+        ItemDto forOwner = assertQueryCount(entityManager, 6,
+                () -> itemService.getItemById(item.getId(), newOwner.getId()));
+        ItemDto forUser = assertQueryCount(entityManager, 5,
+                () -> itemService.getItemById(item.getId(), newUser.getId()));
+        List<ItemDto> found = assertQueryCount(entityManager, 1,
+                () -> itemService.searchItemsByText("мяч", 0, 10));
+
+        assertThat(ownerItems, hasSize(3));
+        assertThat(ownerItems.get(2).getComments(), hasSize(1));
+        assertThat(ownerItems.get(2).getNextBooking(), not(nullValue()));
+        assertThat(forOwner.getLastBooking(), not(nullValue()));
+        assertThat(forUser.getLastBooking(), nullValue());
+        assertThat(found, hasSize(3));
+    }
 }
@@ -6,22 +6,25 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.State;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.dto.CommentCreationDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemCreationDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.FromSizeRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
@@ -54,6 +57,9 @@ public class ItemServiceUnitTest {
     @Mock
     private BookingRepository bookingRepository;
 
+    @Mock
+    private OwnerBookingRepository ownerBookingRepository;
+
     @Mock
     private ItemRequestRepository requestRepository;
 
@@ -148,8 +154,11 @@ public class ItemServiceUnitTest {
                 .thenReturn(List.of(comment1));
         when(itemRepository.findByIdAndOwnerId(itemId, user2.getId()))
                 .thenReturn(Optional.empty());
-        when(itemRepository.findById(itemId))
-                .thenReturn(Optional.of(item1));
+        when(itemRepository.findSnapshotById(itemId))
+                .thenReturn(Optional.of(new ItemSnapshot(item1.getId(), item1.getName(), item1.getDescription(),
+                        item1.getAvailable(), user1.getId(), item1.getRequestId(), 0L)));
+        when(itemRepository.findVersionById(itemId))
+                .thenReturn(Optional.of(0L));
 
         ItemDto result = itemService.getItemById(itemId, user2.getId());
 
@@ -173,7 +182,7 @@ public class ItemServiceUnitTest {
     @Test
     void getAllItemsByOwnerId() {
         Item item = Item.builder().id(3L).name("Приставка PS5").description("эксклюзив!!").available(true).owner(user1).build();
-        when(itemRepository.findByOwnerId(user1.getId(), PageRequest.of(0, 10)))
+        when(itemRepository.findByOwnerId(user1.getId(), FromSizeRequest.of(2, 10, Sort.by("id"))))
                 .thenReturn(List.of(item1, item));
         when(commentRepository.findByItemIdIn(Set.of(item1.getId(), item.getId())))
                 .thenReturn(List.of(comment1));
@@ -295,7 +304,7 @@ public class ItemServiceUnitTest {
     @Test
     void searchItemsByText() {
         String text = "search text";
-        when(itemRepository.findByNameOrDescriptionContaining(text.toUpperCase(Locale.ROOT), PageRequest.of(0, 10)))
+        when(itemRepository.findByNameOrDescriptionContaining(text.toUpperCase(Locale.ROOT), FromSizeRequest.of(0, 10)))
                 .thenReturn(List.of(item1, item2));
 
         List<ItemDto> result = itemService.searchItemsByText(text, 0, 10);
@@ -20,8 +20,12 @@ import ru.practicum.shareit.user.repository.UserRepository;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static ru.practicum.shareit.QueryCounter.assertQueryCount;
 
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 
@@ -35,6 +39,7 @@ public class ItemRequestServiceIntegrationTest {
     private final ItemRequestRepository requestRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
     private Item item1;
     private Item item2;
     private Item item3;
@@ -186,4 +191,67 @@ public class ItemRequestServiceIntegrationTest {
         assertThat(result.get(0).getItems().isEmpty(), equalTo(true));
         assertThat(result.get(1).getItems().isEmpty(), equalTo(true));
     }
+
+    @Test
+    void requestListTags_changeWithRequestsAndResponses() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        request1.setAuthor(newUser);
+        ItemRequest r1 = requestRepository.save(request1);
+        String own = itemRequestService.getRequestsVersionTag(newUser.getId()).orElseThrow();
+        String all = itemRequestService.getAllRequestsVersionTag(newOwner.getId()).orElseThrow();
+
+        assertThat(assertQueryCount(entityManager, 2, () -> itemRequestService.getRequestsVersionTag(newUser.getId()))
+                .orElseThrow(), equalTo(own));
+
+        assertThat(itemRequestService.getAllRequestsVersionTag(newUser.getId()).orElseThrow(), not(equalTo(own)));
+
+        item2.setOwner(newOwner);
+        item2.setRequestId(r1.getId());
+        itemRepository.save(item2);
+        entityManager.flush();
+        String ownWithResponse = itemRequestService.getRequestsVersionTag(newUser.getId()).orElseThrow();
+        String allWithResponse = itemRequestService.getAllRequestsVersionTag(newOwner.getId()).orElseThrow();
+
+        assertThat(ownWithResponse, not(equalTo(own)));
+        assertThat(allWithResponse, not(equalTo(all)));
+
+        request2.setAuthor(newUser);
+        requestRepository.save(request2);
+        entityManager.flush();
+
+        assertThat(itemRequestService.getRequestsVersionTag(newUser.getId()).orElseThrow(),
+                not(equalTo(ownWithResponse)));
+        assertThat(itemRequestService.getAllRequestsVersionTag(newOwner.getId()).orElseThrow(),
+                not(equalTo(allWithResponse)));
+        assertThat(itemRequestService.getRequestsVersionTag(newUser.getId() + 100).isPresent(), equalTo(false));
+    }
+
+    @Test
+    void queryCounts_doNotDependOnNumberOfRequests() {
+        User newOwner = userRepository.save(owner);
+        User newUser = userRepository.save(user);
+        List<ItemRequest> requests = new ArrayList<>();
+        for (ItemRequest request : List.of(request1, request2, request3, request4)) {
+            request.setAuthor(newUser);
+            requests.add(requestRepository.save(request));
+        }
+        for (Item item : List.of(item1, item2, item3)) {
+            item.setOwner(newOwner);
+            item.setRequestId(requests.get(0).getId());
+            itemRepository.save(item);
+        }
+        item3.setRequestId(requests.get(1).getId());
+
+        List<ItemRequestDto> own = assertQueryCount(entityManager, 3,
+                () -> itemRequestService.getAllRequestsByUserId(newUser.getId()));
+        List<ItemRequestDto> others = assertQueryCount(entityManager, 3,
+                () -> itemRequestService.getAllRequests(newOwner.getId(), 0, 10));
+        ItemRequestDto byId = assertQueryCount(entityManager, 2,
+                () -> itemRequestService.getRequestById(newOwner.getId(), requests.get(0).getId()));
+
+        assertThat(own.size(), equalTo(4));
+        assertThat(others.size(), equalTo(4));
+        assertThat(byId.getItems().size(), equalTo(2));
+    }
 }
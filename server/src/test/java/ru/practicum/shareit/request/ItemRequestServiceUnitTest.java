@@ -6,7 +6,6 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.exceptions.PaginationException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
@@ -14,6 +13,7 @@ import ru.practicum.shareit.item.dto.ItemForRequestDto;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.mapper.MapperUtil;
+import ru.practicum.shareit.pagination.FromSizeRequest;
 import ru.practicum.shareit.request.dto.ItemRequestCreationDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
@@ -158,8 +158,8 @@ public class ItemRequestServiceUnitTest {
 
         when(userRepository.existsById(user1.getId()))
                 .thenReturn(true);
-        when(requestRepository.findByAuthorIdIsNot(user1.getId(), PageRequest.of(0, 10,
-                Sort.by(Sort.Direction.DESC, "created"))))
+        when(requestRepository.findByAuthorIdIsNot(user1.getId(), FromSizeRequest.of(0, 10,
+                Sort.by(Sort.Direction.DESC, "created", "id"))))
                 .thenReturn(requestList);
         when(itemRepository.findAllByRequestIdIn(requestsId))
                 .thenReturn(itemsList);
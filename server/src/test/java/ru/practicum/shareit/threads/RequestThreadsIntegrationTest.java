@@ -0,0 +1,56 @@
+package ru.practicum.shareit.threads;
+
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.startsWith;
+
+/**
+ * Проверяет executor, который Tomcat действительно использует в режиме virtual: запрос доходит до контроллера
+ * в виртуальном потоке. На JVM старше 21 тест пропускается, там режим virtual не даёт серверу запуститься.
+ */
+@EnabledIf("virtualThreadsSupported")
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "shareit.threads.mode=virtual")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class RequestThreadsIntegrationTest {
+    private final TestRestTemplate restTemplate;
+
+    static boolean virtualThreadsSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @Test
+    public void shouldHandleRequestsOnVirtualThreads() {
+        String thread = restTemplate.getForObject("/test/current-thread", String.class);
+
+        assertThat(thread, startsWith("VirtualThread["));
+    }
+
+    @TestConfiguration
+    static class CurrentThreadConfig {
+        @Bean
+        CurrentThreadController currentThreadController() {
+            return new CurrentThreadController();
+        }
+    }
+
+    @RestController
+    static class CurrentThreadController {
+        @GetMapping("/test/current-thread")
+        String currentThread() {
+            return Thread.currentThread().toString();
+        }
+    }
+}
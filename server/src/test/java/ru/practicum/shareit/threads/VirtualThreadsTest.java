@@ -0,0 +1,41 @@
+package ru.practicum.shareit.threads;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void shouldRunTasksOnVirtualThreadsWhenJvmSupportsThem() throws Exception {
+        Optional<ExecutorService> executor = VirtualThreads.perTaskExecutor();
+        if (Runtime.version().feature() < 21) {
+            assertFalse(executor.isPresent());
+            return;
+        }
+        assertTrue(executor.isPresent());
+        try {
+            Object virtual = executor.get()
+                    .submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals(Boolean.TRUE, virtual);
+        } finally {
+            executor.get().shutdown();
+        }
+    }
+
+    @Test
+    public void virtualModeShouldFailStartupWhenJvmLacksVirtualThreads() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertThrows(IllegalStateException.class, () -> new RequestThreadsConfig().virtualThreadsCustomizer());
+    }
+}
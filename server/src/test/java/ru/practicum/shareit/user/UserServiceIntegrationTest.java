@@ -8,11 +8,16 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
 
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
+import static ru.practicum.shareit.QueryCounter.assertQueryCount;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
@@ -25,6 +30,7 @@ import javax.persistence.TypedQuery;
 public class UserServiceIntegrationTest {
     private final EntityManager em;
     private final UserService service;
+    private final UserRepository userRepository;
 
     @Test
     void createUser() {
@@ -69,4 +75,33 @@ public class UserServiceIntegrationTest {
         assertThat(updatedUser.getName(), equalTo(update.getName()));
         assertThat(updatedUser.getEmail(), equalTo(update.getEmail()));
     }
+
+    @Test
+    void getUserById_readsThroughCacheAndSeesUpdates() {
+        UserDto user = service.createUser(UserDto.builder()
+                .name("John")
+                .email("cached@email.com")
+                .build());
+
+        service.getUserById(user.getId());
+        userRepository.existsById(user.getId());
+        UserDto cached = assertQueryCount(em, 1, () -> service.getUserById(user.getId()));
+        boolean exists = assertQueryCount(em, 0, () -> userRepository.existsById(user.getId()));
+
+        assertThat(cached.getName(), equalTo("John"));
+        assertThat(exists, equalTo(true));
+        cached.setName("Changed by caller");
+        assertThat(service.getUserById(user.getId()).getName(), equalTo("John"));
+
+        String tag = assertQueryCount(em, 1, () -> service.getUserVersionTag(user.getId())).orElseThrow();
+        service.updateUser(user.getId(), UserDto.builder().name("Updated").build());
+        em.flush();
+        assertThat(service.getUserById(user.getId()).getName(), equalTo("Updated"));
+        assertThat(service.getUserVersionTag(user.getId()).orElseThrow(), not(equalTo(tag)));
+
+        service.deleteUserById(user.getId());
+        em.flush();
+        assertThat(userRepository.existsById(user.getId()), equalTo(false));
+        assertThatThrownBy(() -> service.getUserById(user.getId())).isInstanceOf(UserNotFoundException.class);
+    }
 }
@@ -5,9 +5,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.repository.OwnerBookingRepository;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.mapper.MapperUtil;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 import ru.practicum.shareit.user.service.UserService;
@@ -20,6 +22,7 @@ import java.util.Optional;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,13 +32,15 @@ public class UserServiceUnitTest {
     private UserService userService;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private OwnerBookingRepository ownerBookingRepository;
     private User user1;
     private User user2;
     private UserDto userDto;
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        userService = new UserServiceImpl(userRepository, ownerBookingRepository);
 
         user1 = User.builder()
                 .id(1L)
@@ -79,19 +84,36 @@ public class UserServiceUnitTest {
 
     @Test
     void getUserById_whenUserIsExist() {
-        when(userRepository.findById(1L))
-                .thenReturn(Optional.of(user1));
+        when(userRepository.findSnapshotById(1L))
+                .thenReturn(Optional.of(new UserSnapshot(user1.getId(), user1.getEmail(), user1.getName(), 0L)));
+        when(userRepository.findVersionById(1L))
+                .thenReturn(Optional.of(0L));
 
         UserDto result = userService.getUserById(1L);
 
         assertEquals(user1.getId(), result.getId());
         assertEquals(user1.getName(), result.getName());
         assertEquals(user1.getEmail(), result.getEmail());
+        verify(userRepository, never()).refreshSnapshotById(1L);
+    }
+
+    @Test
+    void getUserById_whenCachedSnapshotIsStale() {
+        when(userRepository.findSnapshotById(1L))
+                .thenReturn(Optional.of(new UserSnapshot(user1.getId(), user1.getEmail(), "Johnny", 0L)));
+        when(userRepository.findVersionById(1L))
+                .thenReturn(Optional.of(1L));
+        when(userRepository.refreshSnapshotById(1L))
+                .thenReturn(Optional.of(new UserSnapshot(user1.getId(), user1.getEmail(), user1.getName(), 1L)));
+
+        UserDto result = userService.getUserById(1L);
+
+        assertEquals(user1.getName(), result.getName());
     }
 
     @Test
     void getUserById_whenUserIsNotExist() {
-        when(userRepository.findById(1L))
+        when(userRepository.findSnapshotById(1L))
                 .thenReturn(Optional.empty());
 
         assertThatThrownBy(() -> userService.getUserById(1L)).isInstanceOf(UserNotFoundException.class)
@@ -114,7 +136,7 @@ public class UserServiceUnitTest {
     void updateUser_withCorrectUpdateParams() {
         when(userRepository.findById(1L))
                 .thenReturn(Optional.of(user1));
-        User updatedUser = new User(1L, "john.smith@example.com", "John Smith");
+        User updatedUser = new User(1L, "john.smith@example.com", "John Smith", null);
         UserDto dto = UserDto.builder().name("John Smith").email("john.smith@example.com").build();
         when(userRepository.save(updatedUser))
                 .thenReturn(updatedUser);